@@ -1,13 +1,26 @@
 package de.rieckpil.courses;
 
+import java.time.Clock;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 
-@SpringBootApplication
+// R2DBC is only wired up by ReactiveReadConfiguration when the reactive read path is enabled
+@SpringBootApplication(
+    exclude = {
+      R2dbcAutoConfiguration.class,
+      R2dbcTransactionManagerAutoConfiguration.class,
+      R2dbcDataAutoConfiguration.class,
+      R2dbcRepositoriesAutoConfiguration.class
+    })
 public class Application {
 
   private static final Logger LOG = LoggerFactory.getLogger(Application.class);
@@ -16,6 +29,11 @@ public class Application {
     SpringApplication.run(Application.class, args);
   }
 
+  @Bean
+  Clock clock() {
+    return Clock.systemDefaultZone();
+  }
+
   @Bean
   CommandLineRunner welcomeMessage() {
     return runner -> {
@@ -0,0 +1,93 @@
+package de.rieckpil.courses.book;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.rieckpil.courses.book.review.ReviewCreatedEvent;
+import de.rieckpil.courses.book.review.ReviewDeletedEvent;
+import de.rieckpil.courses.book.review.ReviewReadModel;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.WebRequest;
+
+@Component
+public class ContentVersions {
+
+  // in the order of the message converters, the first one wins for wildcard Accept headers
+  private static final List<MediaType> REPRESENTATIONS =
+      List.of(
+          MediaType.APPLICATION_JSON,
+          MediaType.valueOf("application/x-jackson-smile"),
+          MediaType.APPLICATION_CBOR);
+
+  // versions restart at zero with every deployment, the epoch keeps old ETags from matching again
+  private final long epoch = System.currentTimeMillis();
+
+  private final AtomicLong bookVersion = new AtomicLong();
+  private final AtomicLong reviewVersion = new AtomicLong();
+
+  public String getBooksETag() {
+    return "\"" + epoch + "-b" + bookVersion.get() + "\"";
+  }
+
+  public String getReviewsETag() {
+    return "\"" + epoch + "-r" + reviewVersion.get() + "\"";
+  }
+
+  // JSON, Smile and CBOR bodies of the same version differ byte-wise, so they need distinct ETags
+  public String getBooksETag(WebRequest webRequest) {
+    return "\"" + epoch + "-b" + bookVersion.get() + "-" + representation(webRequest) + "\"";
+  }
+
+  public String getReviewsETag(WebRequest webRequest) {
+    return "\"" + epoch + "-r" + reviewVersion.get() + "-" + representation(webRequest) + "\"";
+  }
+
+  static String representation(WebRequest webRequest) {
+    String accept = webRequest.getHeader(HttpHeaders.ACCEPT);
+    if (accept == null) {
+      return REPRESENTATIONS.get(0).getSubtype();
+    }
+
+    List<MediaType> acceptedTypes;
+    try {
+      acceptedTypes = MediaType.parseMediaTypes(accept);
+    } catch (InvalidMediaTypeException e) {
+      // content negotiation rejects the request later on anyway
+      return REPRESENTATIONS.get(0).getSubtype();
+    }
+
+    MimeTypeUtils.sortBySpecificity(acceptedTypes);
+    for (MediaType acceptedType : acceptedTypes) {
+      for (MediaType representation : REPRESENTATIONS) {
+        if (acceptedType.isCompatibleWith(representation)) {
+          return representation.getSubtype();
+        }
+      }
+    }
+    return REPRESENTATIONS.get(0).getSubtype();
+  }
+
+  public void booksChanged() {
+    bookVersion.incrementAndGet();
+  }
+
+  // runs after the read models applied the event so a new ETag is never handed out with stale
+  // in-memory state, unordered listeners like the event stream run after it
+  @Order(ReviewReadModel.LISTENER_ORDER + 1)
+  @TransactionalEventListener
+  public void onReviewCreated(ReviewCreatedEvent event) {
+    reviewVersion.incrementAndGet();
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER + 1)
+  @TransactionalEventListener
+  public void onReviewDeleted(ReviewDeletedEvent event) {
+    reviewVersion.incrementAndGet();
+  }
+}
@@ -0,0 +1,12 @@
+package de.rieckpil.courses.book;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidFieldSelectionException extends RuntimeException {
+
+  public InvalidFieldSelectionException(String field) {
+    super(field.isEmpty() ? "No field selected" : "Unknown field '" + field + "'");
+  }
+}
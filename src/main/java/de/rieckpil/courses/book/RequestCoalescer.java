@@ -0,0 +1,102 @@
+package de.rieckpil.courses.book;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+// single-flight for read requests: concurrent callers with an equal key share the result of the
+// computation that is already in flight instead of running it again
+@Component
+public class RequestCoalescer implements MeterBinder {
+
+  static final String METRIC_NAME = "requests.coalesced";
+
+  private final ConcurrentMap<Flight, CompletableFuture<Object>> flights =
+      new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, LongAdder> coalescedByOperation = new ConcurrentHashMap<>();
+
+  private volatile MeterRegistry meterRegistry;
+
+  // callers include the current content version in the key, so nobody joins a computation that
+  // started before their own view of the data
+  @SuppressWarnings("unchecked")
+  public <T> T coalesce(String operation, List<?> key, Supplier<T> computation) {
+    Flight flight = new Flight(operation, key);
+    CompletableFuture<Object> result = new CompletableFuture<>();
+    CompletableFuture<Object> inFlight = flights.putIfAbsent(flight, result);
+
+    if (inFlight != null) {
+      coalesced(operation).increment();
+      return (T) await(inFlight);
+    }
+
+    try {
+      T value = computation.get();
+      result.complete(value);
+      return value;
+    } catch (RuntimeException | Error exception) {
+      result.completeExceptionally(exception);
+      throw exception;
+    } finally {
+      flights.remove(flight, result);
+    }
+  }
+
+  public long getCoalescedCount(String operation) {
+    LongAdder coalesced = coalescedByOperation.get(operation);
+    return coalesced == null ? 0 : coalesced.sum();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    this.meterRegistry = registry;
+    coalescedByOperation.forEach(
+        (operation, coalesced) -> register(registry, operation, coalesced));
+  }
+
+  private LongAdder coalesced(String operation) {
+    return coalescedByOperation.computeIfAbsent(
+        operation,
+        name -> {
+          LongAdder coalesced = new LongAdder();
+          MeterRegistry registry = meterRegistry;
+          if (registry != null) {
+            register(registry, name, coalesced);
+          }
+          return coalesced;
+        });
+  }
+
+  private static void register(MeterRegistry registry, String operation, LongAdder coalesced) {
+    FunctionCounter.builder(METRIC_NAME, coalesced, LongAdder::sum)
+        .description("Callers that shared an in-flight computation instead of running their own")
+        .tag("operation", operation)
+        .register(registry);
+  }
+
+  private static Object await(CompletableFuture<Object> inFlight) {
+    try {
+      return inFlight.join();
+    } catch (CompletionException exception) {
+      // surface the original exception so @ResponseStatus mappings keep working
+      if (exception.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (exception.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw exception;
+    }
+  }
+
+  private record Flight(String operation, List<?> key) {}
+}
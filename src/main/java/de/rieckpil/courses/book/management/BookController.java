@@ -1,23 +1,54 @@
 package de.rieckpil.courses.book.management;
 
 import java.util.List;
+import java.util.Map;
 
+import de.rieckpil.courses.book.ContentVersions;
+import de.rieckpil.courses.book.RequestCoalescer;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/books")
 public class BookController {
 
+  static final String ALL_BOOKS_OPERATION = "books.all";
+
   private final BookManagementService bookManagementService;
+  private final ContentVersions contentVersions;
+  private final RequestCoalescer requestCoalescer;
 
-  public BookController(BookManagementService bookManagementService) {
+  public BookController(
+      BookManagementService bookManagementService,
+      ContentVersions contentVersions,
+      RequestCoalescer requestCoalescer) {
     this.bookManagementService = bookManagementService;
+    this.contentVersions = contentVersions;
+    this.requestCoalescer = requestCoalescer;
   }
 
   @GetMapping
-  public List<Book> getAvailableBooks() {
-    return bookManagementService.getAllBooks();
+  public List<Book> getAvailableBooks(WebRequest webRequest) {
+    String eTag = contentVersions.getBooksETag(webRequest);
+
+    if (webRequest.checkNotModified(eTag)) {
+      return null;
+    }
+
+    return requestCoalescer.coalesce(
+        ALL_BOOKS_OPERATION, List.of(eTag), bookManagementService::getAllBooks);
+  }
+
+  @GetMapping(params = "fields")
+  public List<Map<String, Object>> getAvailableBookFields(
+      @RequestParam(name = "fields") List<String> fields, WebRequest webRequest) {
+    if (webRequest.checkNotModified(contentVersions.getBooksETag(webRequest))) {
+      return null;
+    }
+
+    return bookManagementService.getAllBooks(BookField.parse(fields));
   }
 }
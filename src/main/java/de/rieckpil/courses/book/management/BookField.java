@@ -0,0 +1,47 @@
+package de.rieckpil.courses.book.management;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+import de.rieckpil.courses.book.InvalidFieldSelectionException;
+
+public enum BookField {
+  TITLE("title"),
+  ISBN("isbn"),
+  AUTHOR("author"),
+  GENRE("genre"),
+  THUMBNAIL_URL("thumbnailUrl"),
+  DESCRIPTION("description"),
+  PUBLISHER("publisher"),
+  PAGES("pages");
+
+  // the JSON property and the JPA attribute share the same name
+  private final String attribute;
+
+  BookField(String attribute) {
+    this.attribute = attribute;
+  }
+
+  public String getAttribute() {
+    return attribute;
+  }
+
+  public static Set<BookField> parse(Collection<String> attributes) {
+    Set<BookField> fields = EnumSet.noneOf(BookField.class);
+
+    for (String attribute : attributes) {
+      fields.add(
+          EnumSet.allOf(BookField.class).stream()
+              .filter(field -> field.attribute.equals(attribute.trim()))
+              .findFirst()
+              .orElseThrow(() -> new InvalidFieldSelectionException(attribute)));
+    }
+
+    if (fields.isEmpty()) {
+      throw new InvalidFieldSelectionException("");
+    }
+
+    return fields;
+  }
+}
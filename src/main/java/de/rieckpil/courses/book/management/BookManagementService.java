@@ -1,6 +1,8 @@
 package de.rieckpil.courses.book.management;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.stereotype.Service;
 
@@ -16,4 +18,8 @@ public class BookManagementService {
   public List<Book> getAllBooks() {
     return bookRepository.findAll();
   }
+
+  public List<Map<String, Object>> getAllBooks(Set<BookField> fields) {
+    return bookRepository.findAllFields(fields);
+  }
 }
@@ -1,7 +1,24 @@
 package de.rieckpil.courses.book.management;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookRepositoryCustom {
   Book findByIsbn(String isbn);
+
+  // keeps the denormalised book columns of review_view in line with the books table, needed only
+  // after the title or thumbnail of a book with reviews changed
+  @Transactional
+  @Modifying
+  @Query(
+      value =
+          "UPDATE review_view v SET "
+              + "book_isbn = b.isbn, book_title = b.title, book_thumbnail_url = b.thumbnail_url "
+              + "FROM books b "
+              + "WHERE b.id = :bookId AND v.book_id = b.id",
+      nativeQuery = true)
+  int refreshReviewView(@Param("bookId") Long bookId);
 }
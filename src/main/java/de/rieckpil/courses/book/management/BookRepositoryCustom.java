@@ -0,0 +1,10 @@
+package de.rieckpil.courses.book.management;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface BookRepositoryCustom {
+
+  List<Map<String, Object>> findAllFields(Set<BookField> fields);
+}
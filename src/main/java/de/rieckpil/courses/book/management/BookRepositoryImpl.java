@@ -0,0 +1,42 @@
+package de.rieckpil.courses.book.management;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+class BookRepositoryImpl implements BookRepositoryCustom {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public List<Map<String, Object>> findAllFields(Set<BookField> fields) {
+    CriteriaQuery<Tuple> query = entityManager.getCriteriaBuilder().createTupleQuery();
+    Root<Book> book = query.from(Book.class);
+
+    query.multiselect(
+        fields.stream()
+            .<Selection<?>>map(field -> book.get(field.getAttribute()).alias(field.getAttribute()))
+            .toList());
+
+    List<Map<String, Object>> result = new ArrayList<>();
+
+    for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+      Map<String, Object> row = new LinkedHashMap<>();
+      for (BookField field : fields) {
+        row.put(field.getAttribute(), tuple.get(field.getAttribute()));
+      }
+      result.add(row);
+    }
+
+    return result;
+  }
+}
@@ -1,5 +1,6 @@
 package de.rieckpil.courses.book.management;
 
+import de.rieckpil.courses.book.ContentVersions;
 import io.awspring.cloud.sqs.annotation.SqsListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,11 +14,15 @@ public class BookSynchronizationListener {
 
   private final BookRepository bookRepository;
   private final OpenLibraryApiClient openLibraryApiClient;
+  private final ContentVersions contentVersions;
 
   public BookSynchronizationListener(
-      BookRepository bookRepository, OpenLibraryApiClient openLibraryApiClient) {
+      BookRepository bookRepository,
+      OpenLibraryApiClient openLibraryApiClient,
+      ContentVersions contentVersions) {
     this.bookRepository = bookRepository;
     this.openLibraryApiClient = openLibraryApiClient;
+    this.contentVersions = contentVersions;
   }
 
   @SqsListener("${sqs.book-synchronization-queue}")
@@ -37,7 +42,9 @@ public class BookSynchronizationListener {
     }
 
     Book book = openLibraryApiClient.fetchMetadataForBook(isbn);
+    // a new book has no reviews yet, so there are no review_view rows to refresh
     book = bookRepository.save(book);
+    contentVersions.booksChanged();
     System.out.println(book);
 
     LOG.info("Successfully stored new book '{}'", book);
@@ -0,0 +1,18 @@
+package de.rieckpil.courses.book.reactive;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+// same JSON representation as the JPA Book entity
+@Table("books")
+public record BookRow(
+    @Id @JsonIgnore Long id,
+    String title,
+    String isbn,
+    String author,
+    String genre,
+    String thumbnailUrl,
+    String description,
+    String publisher,
+    Long pages) {}
@@ -0,0 +1,5 @@
+package de.rieckpil.courses.book.reactive;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+public interface ReactiveBookRepository extends ReactiveCrudRepository<BookRow, Long> {}
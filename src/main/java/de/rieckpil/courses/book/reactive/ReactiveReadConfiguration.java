@@ -0,0 +1,43 @@
+package de.rieckpil.courses.book.reactive;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.config.AbstractR2dbcConfiguration;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+
+// opt-in with reactive.enabled=true, reads the spring.r2dbc.* connection settings
+@Configuration
+@ConditionalOnProperty(name = "reactive.enabled", havingValue = "true")
+@EnableConfigurationProperties(R2dbcProperties.class)
+@EnableR2dbcRepositories
+public class ReactiveReadConfiguration extends AbstractR2dbcConfiguration {
+
+  private final R2dbcProperties r2dbcProperties;
+
+  public ReactiveReadConfiguration(R2dbcProperties r2dbcProperties) {
+    this.r2dbcProperties = r2dbcProperties;
+  }
+
+  @Bean
+  @Override
+  public ConnectionFactory connectionFactory() {
+    ConnectionFactoryOptions.Builder options =
+        ConnectionFactoryOptions.parse(r2dbcProperties.getUrl()).mutate();
+
+    if (r2dbcProperties.getUsername() != null) {
+      options.option(ConnectionFactoryOptions.USER, r2dbcProperties.getUsername());
+    }
+
+    if (r2dbcProperties.getPassword() != null) {
+      options.option(ConnectionFactoryOptions.PASSWORD, r2dbcProperties.getPassword());
+    }
+
+    return ConnectionFactories.get(options.build());
+  }
+}
@@ -0,0 +1,106 @@
+package de.rieckpil.courses.book.reactive;
+
+import java.util.List;
+
+import de.rieckpil.courses.book.review.ReviewCursor;
+import de.rieckpil.courses.book.review.ReviewPage;
+import de.rieckpil.courses.book.review.ReviewStatistic;
+import de.rieckpil.courses.book.review.ReviewSummary;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// non-blocking variant of the read endpoints of BookController and ReviewController, the servlet
+// thread is released while R2DBC fetches the rows
+@RestController
+@ConditionalOnProperty(name = "reactive.enabled", havingValue = "true")
+@RequestMapping("/api/reactive/books")
+public class ReactiveReadController {
+
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+  private final ReactiveBookRepository reactiveBookRepository;
+  private final ReactiveReviewRepository reactiveReviewRepository;
+
+  public ReactiveReadController(
+      ReactiveBookRepository reactiveBookRepository,
+      ReactiveReviewRepository reactiveReviewRepository) {
+    this.reactiveBookRepository = reactiveBookRepository;
+    this.reactiveReviewRepository = reactiveReviewRepository;
+  }
+
+  @GetMapping
+  public Flux<BookRow> getAvailableBooks() {
+    return reactiveBookRepository.findAll();
+  }
+
+  @GetMapping("/reviews")
+  public Mono<ResponseEntity<List<ReviewSummary>>> getAllReviews(
+      @RequestParam(name = "size", defaultValue = "20") Integer size,
+      @RequestParam(name = "after", required = false) String after) {
+    ReviewPage.validateSize(size);
+
+    // fetch one additional review to find out if there is a next page without a count query
+    Flux<ReviewViewRow> requestedReviews;
+
+    if (after == null) {
+      requestedReviews = reactiveReviewRepository.findLatest(size + 1);
+    } else {
+      ReviewCursor cursor = ReviewCursor.decode(after);
+      requestedReviews =
+          reactiveReviewRepository.findLatestCreatedBefore(
+              cursor.createdAt(), cursor.id(), size + 1);
+    }
+
+    return toResponse(requestedReviews, size);
+  }
+
+  @GetMapping("/{isbn}/reviews")
+  public Mono<ResponseEntity<List<ReviewSummary>>> getBookReviews(
+      @PathVariable("isbn") String isbn,
+      @RequestParam(name = "size", defaultValue = "20") Integer size,
+      @RequestParam(name = "after", required = false) String after) {
+    ReviewPage.validateSize(size);
+    Flux<ReviewViewRow> requestedReviews;
+
+    if (after == null) {
+      requestedReviews = reactiveReviewRepository.findLatestByBookIsbn(isbn, size + 1);
+    } else {
+      ReviewCursor cursor = ReviewCursor.decode(after);
+      requestedReviews =
+          reactiveReviewRepository.findLatestByBookIsbnCreatedBefore(
+              isbn, cursor.createdAt(), cursor.id(), size + 1);
+    }
+
+    return toResponse(requestedReviews, size);
+  }
+
+  @GetMapping("/reviews/statistics")
+  public Flux<ReviewStatistic> getReviewStatistics() {
+    return reactiveReviewRepository.findStatistics().cast(ReviewStatistic.class);
+  }
+
+  private Mono<ResponseEntity<List<ReviewSummary>>> toResponse(
+      Flux<ReviewViewRow> requestedReviews, int size) {
+    return requestedReviews
+        .map(ReviewViewRow::toSummary)
+        .collectList()
+        .map(reviews -> ReviewPage.of(reviews, size))
+        .map(
+            reviewPage -> {
+              ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+              if (reviewPage.nextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, reviewPage.nextCursor());
+              }
+
+              return response.body(reviewPage.reviews());
+            });
+  }
+}
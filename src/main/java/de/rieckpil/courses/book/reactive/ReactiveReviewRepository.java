@@ -0,0 +1,43 @@
+package de.rieckpil.courses.book.reactive;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+
+// single-table reads of review_view, same ordering and keyset as ReviewRepository
+public interface ReactiveReviewRepository extends ReactiveCrudRepository<ReviewViewRow, Long> {
+
+  @Query("SELECT * FROM review_view ORDER BY created_at DESC, review_id DESC LIMIT :limit")
+  Flux<ReviewViewRow> findLatest(@Param("limit") int limit);
+
+  @Query(
+      "SELECT * FROM review_view "
+          + "WHERE (created_at, review_id) < (:createdAt, :id) "
+          + "ORDER BY created_at DESC, review_id DESC LIMIT :limit")
+  Flux<ReviewViewRow> findLatestCreatedBefore(
+      @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, @Param("limit") int limit);
+
+  @Query(
+      "SELECT * FROM review_view WHERE book_isbn = :isbn "
+          + "ORDER BY created_at DESC, review_id DESC LIMIT :limit")
+  Flux<ReviewViewRow> findLatestByBookIsbn(@Param("isbn") String isbn, @Param("limit") int limit);
+
+  @Query(
+      "SELECT * FROM review_view WHERE book_isbn = :isbn "
+          + "AND (created_at, review_id) < (:createdAt, :id) "
+          + "ORDER BY created_at DESC, review_id DESC LIMIT :limit")
+  Flux<ReviewViewRow> findLatestByBookIsbnCreatedBefore(
+      @Param("isbn") String isbn,
+      @Param("createdAt") LocalDateTime createdAt,
+      @Param("id") Long id,
+      @Param("limit") int limit);
+
+  @Query(
+      "SELECT b.id AS book_id, s.ratings, b.isbn, s.avg "
+          + "FROM review_statistics s "
+          + "JOIN books b ON b.id = s.book_id")
+  Flux<ReviewStatisticRow> findStatistics();
+}
@@ -0,0 +1,29 @@
+package de.rieckpil.courses.book.reactive;
+
+import java.math.BigDecimal;
+
+import de.rieckpil.courses.book.review.ReviewStatistic;
+
+public record ReviewStatisticRow(Long bookId, Long ratings, String isbn, BigDecimal avg)
+    implements ReviewStatistic {
+
+  @Override
+  public Long getId() {
+    return bookId;
+  }
+
+  @Override
+  public Long getRatings() {
+    return ratings;
+  }
+
+  @Override
+  public String getIsbn() {
+    return isbn;
+  }
+
+  @Override
+  public BigDecimal getAvg() {
+    return avg;
+  }
+}
@@ -0,0 +1,34 @@
+package de.rieckpil.courses.book.reactive;
+
+import java.time.LocalDateTime;
+
+import de.rieckpil.courses.book.review.ReviewSummary;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("review_view")
+public record ReviewViewRow(
+    @Id Long reviewId,
+    String title,
+    String content,
+    Integer rating,
+    LocalDateTime createdAt,
+    Long bookId,
+    String bookIsbn,
+    String bookTitle,
+    String bookThumbnailUrl,
+    String submittedBy) {
+
+  public ReviewSummary toSummary() {
+    return new ReviewSummary(
+        reviewId,
+        title,
+        content,
+        rating,
+        createdAt,
+        bookIsbn,
+        bookTitle,
+        bookThumbnailUrl,
+        submittedBy);
+  }
+}
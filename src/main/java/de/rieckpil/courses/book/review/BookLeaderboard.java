@@ -0,0 +1,150 @@
+package de.rieckpil.courses.book.review;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// books ordered by their Bayesian average: (priorWeight * priorRating + ratingSum) /
+// (priorWeight + ratings). The prior rating is the catalog average at the last rebuild and stays
+// fixed in between, so a review only ever moves the score of its own book.
+@Component
+public class BookLeaderboard implements ReviewReadModel {
+
+  private static final Comparator<Ranking> BY_SCORE =
+      Comparator.comparingDouble(Ranking::score).reversed().thenComparing(Ranking::isbn);
+
+  private final ReviewRepository reviewRepository;
+  private final double priorWeight;
+
+  private volatile Board board = new Board(ReviewRatingHistograms.MAX_RATING / 2.0);
+
+  public BookLeaderboard(
+      ReviewRepository reviewRepository,
+      @Value("${books.leaderboard.prior-weight:10}") double priorWeight) {
+    this.reviewRepository = reviewRepository;
+    this.priorWeight = priorWeight;
+  }
+
+  @Override
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    List<ReviewRatingTotals> allTotals = reviewRepository.getReviewRatingTotals();
+
+    long ratings = 0;
+    long ratingSum = 0;
+
+    for (ReviewRatingTotals totals : allTotals) {
+      ratings += totals.getRatings();
+      ratingSum += totals.getRatingSum();
+    }
+
+    Board rebuiltBoard =
+        new Board(
+            ratings == 0 ? ReviewRatingHistograms.MAX_RATING / 2.0 : (double) ratingSum / ratings);
+
+    for (ReviewRatingTotals totals : allTotals) {
+      rebuiltBoard.update(totals.getIsbn(), totals.getRatings(), totals.getRatingSum());
+    }
+
+    this.board = rebuiltBoard;
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER)
+  @TransactionalEventListener
+  public void onReviewCreated(ReviewCreatedEvent event) {
+    Review review = event.review();
+    board.update(review.getBook().getIsbn(), 1, review.getRating());
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER)
+  @TransactionalEventListener
+  public void onReviewDeleted(ReviewDeletedEvent event) {
+    Review review = event.review();
+    board.update(review.getBook().getIsbn(), -1, -review.getRating());
+  }
+
+  public BookLeaderboardPage getPage(int size, String after) {
+    NavigableSet<Ranking> rankings = board.rankings;
+
+    if (after != null) {
+      LeaderboardCursor cursor = LeaderboardCursor.decode(after);
+      rankings = rankings.tailSet(new Ranking(cursor.isbn(), 0, 0, cursor.score()), false);
+    }
+
+    List<BookRanking> books = new ArrayList<>();
+    Iterator<Ranking> iterator = rankings.iterator();
+    Ranking last = null;
+
+    while (books.size() < size && iterator.hasNext()) {
+      last = iterator.next();
+      books.add(last.toBookRanking());
+    }
+
+    String nextCursor =
+        last != null && iterator.hasNext()
+            ? new LeaderboardCursor(last.score(), last.isbn()).encode()
+            : null;
+
+    return new BookLeaderboardPage(books, nextCursor);
+  }
+
+  private class Board {
+
+    private final double priorRating;
+    private final ConcurrentMap<String, Ranking> rankingsByIsbn = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Ranking> rankings = new ConcurrentSkipListSet<>(BY_SCORE);
+
+    Board(double priorRating) {
+      this.priorRating = priorRating;
+    }
+
+    // compute serialises updates per book, readers may briefly miss the book being repositioned
+    void update(String isbn, long ratingsDelta, long ratingSumDelta) {
+      rankingsByIsbn.compute(
+          isbn,
+          (key, current) -> {
+            long ratings = ratingsDelta;
+            long ratingSum = ratingSumDelta;
+
+            if (current != null) {
+              rankings.remove(current);
+              ratings += current.ratings();
+              ratingSum += current.ratingSum();
+            }
+
+            if (ratings <= 0) {
+              return null;
+            }
+
+            double score = (priorWeight * priorRating + ratingSum) / (priorWeight + ratings);
+            Ranking updated = new Ranking(key, ratings, ratingSum, score);
+            rankings.add(updated);
+            return updated;
+          });
+    }
+  }
+
+  private record Ranking(String isbn, long ratings, long ratingSum, double score) {
+
+    BookRanking toBookRanking() {
+      BigDecimal avg =
+          BigDecimal.valueOf(ratingSum)
+              .divide(BigDecimal.valueOf(ratings), 2, RoundingMode.HALF_UP);
+      return new BookRanking(isbn, ratings, avg, score);
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/books")
+public class BookLeaderboardController {
+
+  private final BookLeaderboard bookLeaderboard;
+  private final int maxResults;
+
+  public BookLeaderboardController(
+      BookLeaderboard bookLeaderboard,
+      @Value("${books.leaderboard.max-results:100}") int maxResults) {
+    this.bookLeaderboard = bookLeaderboard;
+    this.maxResults = maxResults;
+  }
+
+  @GetMapping("/leaderboard")
+  public ResponseEntity<List<BookRanking>> getLeaderboard(
+      @RequestParam(name = "size", defaultValue = "20") Integer size,
+      @RequestParam(name = "after", required = false) String after) {
+    if (size < 1) {
+      throw new InvalidPageSizeException(size, maxResults);
+    }
+
+    BookLeaderboardPage page = bookLeaderboard.getPage(Math.min(size, maxResults), after);
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+    if (page.nextCursor() != null) {
+      response.header(ReviewController.NEXT_CURSOR_HEADER, page.nextCursor());
+    }
+
+    return response.body(page.books());
+  }
+}
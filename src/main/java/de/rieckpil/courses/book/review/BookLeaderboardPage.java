@@ -0,0 +1,5 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.List;
+
+public record BookLeaderboardPage(List<BookRanking> books, String nextCursor) {}
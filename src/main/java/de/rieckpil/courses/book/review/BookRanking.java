@@ -0,0 +1,5 @@
+package de.rieckpil.courses.book.review;
+
+import java.math.BigDecimal;
+
+public record BookRanking(String isbn, long ratings, BigDecimal avg, double score) {}
@@ -0,0 +1,81 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.List;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.rieckpil.courses.book.management.BookNotFoundException;
+import de.rieckpil.courses.book.management.BookRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class BookReviewFirstPages implements ReviewReadModel, MeterBinder {
+
+  static final String CACHE_NAME = "reviews.first-page";
+
+  private final ReviewRepository reviewRepository;
+  private final BookRepository bookRepository;
+  private final int pageSize;
+  private final Cache<String, List<ReviewSummary>> cache;
+
+  public BookReviewFirstPages(
+      ReviewRepository reviewRepository,
+      BookRepository bookRepository,
+      @Value("${reviews.first-page.size:50}") int pageSize,
+      @Value("${reviews.first-page.max-books:10000}") long maxBooks) {
+    this.reviewRepository = reviewRepository;
+    this.bookRepository = bookRepository;
+    this.pageSize = pageSize;
+    this.cache = Caffeine.newBuilder().maximumSize(maxBooks).recordStats().build();
+  }
+
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  // holds one review more than the page size so callers can tell whether a second page exists
+  public List<ReviewSummary> getFirstPage(String isbn) {
+    return cache.get(isbn, this::loadFirstPage);
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER)
+  @TransactionalEventListener
+  public void onReviewCreated(ReviewCreatedEvent event) {
+    cache.invalidate(event.review().getBook().getIsbn());
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER)
+  @TransactionalEventListener
+  public void onReviewDeleted(ReviewDeletedEvent event) {
+    cache.invalidate(event.review().getBook().getIsbn());
+  }
+
+  @Override
+  public void rebuild() {
+    cache.invalidateAll();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+  }
+
+  private List<ReviewSummary> loadFirstPage(String isbn) {
+    List<ReviewSummary> firstPage =
+        reviewRepository.findLatestSummariesByBookIsbn(isbn, PageRequest.of(0, pageSize + 1));
+
+    // unknown books throw from the loader and are never cached
+    if (firstPage.isEmpty() && bookRepository.findByIsbn(isbn) == null) {
+      throw new BookNotFoundException();
+    }
+
+    return List.copyOf(firstPage);
+  }
+}
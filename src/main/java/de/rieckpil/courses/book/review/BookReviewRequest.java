@@ -1,5 +1,6 @@
 package de.rieckpil.courses.book.review;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -10,7 +11,10 @@ public class BookReviewRequest {
 
   @NotEmpty private String reviewContent;
 
-  @NotNull @PositiveOrZero private Integer rating;
+  @NotNull
+  @PositiveOrZero
+  @Max(5)
+  private Integer rating;
 
   public BookReviewRequest(String reviewTitle, String reviewContent, Integer rating) {
     this.reviewTitle = reviewTitle;
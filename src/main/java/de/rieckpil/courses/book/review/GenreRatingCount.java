@@ -0,0 +1,3 @@
+package de.rieckpil.courses.book.review;
+
+public record GenreRatingCount(String genre, Integer rating, Long reviews) {}
@@ -0,0 +1,89 @@
+package de.rieckpil.courses.book.review;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+// the register layout and hash have to match the book_reviewer_sketches SQL in ReviewRepository
+public class HyperLogLog {
+
+  static final int PRECISION = 12;
+  static final int REGISTERS = 1 << PRECISION;
+
+  private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+  private final byte[] registers;
+
+  public HyperLogLog() {
+    this.registers = new byte[REGISTERS];
+  }
+
+  public HyperLogLog(byte[] registers) {
+    if (registers.length != REGISTERS) {
+      throw new IllegalArgumentException(
+          "Expected " + REGISTERS + " registers but got " + registers.length);
+    }
+    this.registers = registers.clone();
+  }
+
+  // first 64 bits of the md5 of the decimal id, which Postgres computes the same way
+  public static long hash(long id) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("MD5")
+              .digest(Long.toString(id).getBytes(StandardCharsets.US_ASCII));
+      return ByteBuffer.wrap(digest).getLong();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  public static int register(long hash) {
+    return (int) (hash >>> (Long.SIZE - PRECISION));
+  }
+
+  public static int rank(long hash) {
+    return Math.min(Long.numberOfLeadingZeros(hash << PRECISION), Long.SIZE - PRECISION) + 1;
+  }
+
+  public synchronized void add(long hash) {
+    int register = register(hash);
+    registers[register] = (byte) Math.max(registers[register], rank(hash));
+  }
+
+  public void merge(HyperLogLog other) {
+    byte[] otherRegisters = other.toByteArray();
+
+    synchronized (this) {
+      for (int i = 0; i < REGISTERS; i++) {
+        registers[i] = (byte) Math.max(registers[i], otherRegisters[i]);
+      }
+    }
+  }
+
+  public synchronized byte[] toByteArray() {
+    return registers.clone();
+  }
+
+  public synchronized long estimate() {
+    double sum = 0;
+    int emptyRegisters = 0;
+
+    for (byte register : registers) {
+      sum += 1.0 / (1L << register);
+      if (register == 0) {
+        emptyRegisters++;
+      }
+    }
+
+    double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+
+    // linear counting is more accurate while many registers are still empty
+    if (estimate <= 2.5 * REGISTERS && emptyRegisters > 0) {
+      estimate = REGISTERS * Math.log((double) REGISTERS / emptyRegisters);
+    }
+
+    return Math.round(estimate);
+  }
+}
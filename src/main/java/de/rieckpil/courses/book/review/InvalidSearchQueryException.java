@@ -0,0 +1,11 @@
+package de.rieckpil.courses.book.review;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidSearchQueryException extends RuntimeException {
+  public InvalidSearchQueryException(String query) {
+    super("Search query '" + query + "' contains no searchable terms");
+  }
+}
@@ -0,0 +1,11 @@
+package de.rieckpil.courses.book.review;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidTrendingWindowException extends RuntimeException {
+  public InvalidTrendingWindowException(String window) {
+    super("Trending window '" + window + "' is not supported");
+  }
+}
@@ -0,0 +1,32 @@
+package de.rieckpil.courses.book.review;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record LeaderboardCursor(double score, String isbn) {
+
+  private static final String SEPARATOR = "|";
+
+  public static LeaderboardCursor decode(String value) {
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+      int separatorIndex = decoded.indexOf(SEPARATOR);
+
+      if (separatorIndex < 0) {
+        throw new InvalidLeaderboardCursorException(value);
+      }
+
+      return new LeaderboardCursor(
+          Double.parseDouble(decoded.substring(0, separatorIndex)),
+          decoded.substring(separatorIndex + 1));
+    } catch (IllegalArgumentException exception) {
+      throw new InvalidLeaderboardCursorException(value);
+    }
+  }
+
+  public String encode() {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString((score + SEPARATOR + isbn).getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,3 @@
+package de.rieckpil.courses.book.review;
+
+public record RatingQuantiles(String name, long ratings, Integer median, Integer p90) {}
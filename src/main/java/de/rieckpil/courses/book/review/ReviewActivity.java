@@ -0,0 +1,5 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDateTime;
+
+public record ReviewActivity(String isbn, String bookTitle, LocalDateTime createdAt) {}
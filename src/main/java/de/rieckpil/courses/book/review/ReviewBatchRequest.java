@@ -0,0 +1,15 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public record ReviewBatchRequest(
+    @NotEmpty @Size(max = ReviewBatchRequest.MAX_REVIEWS)
+        List<@NotNull @Valid ReviewReference> reviews) {
+
+  static final int MAX_REVIEWS = 250;
+}
@@ -1,13 +1,20 @@
 package de.rieckpil.courses.book.review;
 
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.rieckpil.courses.book.ContentVersions;
+import de.rieckpil.courses.book.RequestCoalescer;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -16,24 +23,103 @@ import org.springframework.web.util.UriComponentsBuilder;
 @RequestMapping("/api/books")
 public class ReviewController {
 
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  static final String ALL_REVIEWS_OPERATION = "reviews.all";
+
   private final ReviewService reviewService;
+  private final ContentVersions contentVersions;
+  private final ReviewResponseCache reviewResponseCache;
+  private final RequestCoalescer requestCoalescer;
 
-  public ReviewController(ReviewService reviewService) {
+  public ReviewController(
+      ReviewService reviewService,
+      ContentVersions contentVersions,
+      ReviewResponseCache reviewResponseCache,
+      RequestCoalescer requestCoalescer) {
     this.reviewService = reviewService;
+    this.contentVersions = contentVersions;
+    this.reviewResponseCache = reviewResponseCache;
+    this.requestCoalescer = requestCoalescer;
   }
 
   @GetMapping("/reviews")
-  public ArrayNode getAllReviews(
+  public ResponseEntity<List<ReviewSummary>> getAllReviews(
+      @RequestParam(name = "size", defaultValue = "20") Integer size,
+      @RequestParam(name = "orderBy", defaultValue = "none") String orderBy,
+      @RequestParam(name = "after", required = false) String after,
+      WebRequest webRequest) {
+
+    String eTag = contentVersions.getReviewsETag(webRequest);
+
+    if (webRequest.checkNotModified(eTag)) {
+      return null;
+    }
+
+    ReviewPage reviewPage =
+        requestCoalescer.coalesce(
+            ALL_REVIEWS_OPERATION,
+            Arrays.asList(eTag, size, orderBy, after),
+            () -> reviewService.getAllReviews(size, orderBy, after));
+    return toResponse(reviewPage.nextCursor(), reviewPage.reviews());
+  }
+
+  @GetMapping(value = "/reviews", params = "fields")
+  public ResponseEntity<List<Map<String, Object>>> getAllReviewFields(
+      @RequestParam(name = "size", defaultValue = "20") Integer size,
+      @RequestParam(name = "orderBy", defaultValue = "none") String orderBy,
+      @RequestParam(name = "after", required = false) String after,
+      @RequestParam(name = "fields") List<String> fields,
+      WebRequest webRequest) {
+
+    if (webRequest.checkNotModified(contentVersions.getReviewsETag(webRequest))) {
+      return null;
+    }
+
+    Set<ReviewField> selectedFields = ReviewField.parse(fields);
+    ReviewPage reviewPage = reviewService.getAllReviews(size, orderBy, after, selectedFields);
+
+    return toResponse(
+        reviewPage.nextCursor(),
+        reviewPage.reviews().stream()
+            .map(review -> ReviewField.project(review, selectedFields))
+            .toList());
+  }
+
+  @GetMapping("/{isbn}/reviews")
+  public ResponseEntity<List<ReviewSummary>> getBookReviews(
+      @PathVariable("isbn") String isbn,
       @RequestParam(name = "size", defaultValue = "20") Integer size,
-      @RequestParam(name = "orderBy", defaultValue = "none") String orderBy) {
-    return reviewService.getAllReviews(size, orderBy);
+      @RequestParam(name = "after", required = false) String after,
+      WebRequest webRequest) {
+
+    if (webRequest.checkNotModified(contentVersions.getReviewsETag(webRequest))) {
+      return null;
+    }
+
+    ReviewPage reviewPage = reviewService.getBookReviews(isbn, size, after);
+    return toResponse(reviewPage.nextCursor(), reviewPage.reviews());
   }
 
   @GetMapping("/reviews/statistics")
-  public ArrayNode getReviewStatistics() {
+  public List<ReviewStatistic> getReviewStatistics(WebRequest webRequest) {
+    if (webRequest.checkNotModified(contentVersions.getReviewsETag(webRequest))) {
+      return null;
+    }
+
+    // read from the in-memory aggregator, caching or coalescing would not save any database work
     return reviewService.getReviewStatistics();
   }
 
+  @GetMapping("/{isbn}/reviews/histogram")
+  public ReviewRatingHistogram getRatingHistogram(@PathVariable String isbn) {
+    return reviewService.getRatingHistogram(isbn);
+  }
+
+  @GetMapping("/{isbn}/reviews/reviewers")
+  public ReviewerCount getReviewerCount(@PathVariable String isbn) {
+    return reviewService.getReviewerCount(isbn);
+  }
+
   @PostMapping("/{isbn}/reviews")
   public ResponseEntity<Void> createBookReview(
       @PathVariable("isbn") String isbn,
@@ -62,7 +148,28 @@ public class ReviewController {
   }
 
   @GetMapping("/{isbn}/reviews/{reviewId}")
-  public ObjectNode getReviewById(@PathVariable String isbn, @PathVariable Long reviewId) {
-    return reviewService.getReviewById(isbn, reviewId);
+  public ResponseEntity<byte[]> getReviewById(
+      @PathVariable String isbn, @PathVariable Long reviewId) {
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(reviewResponseCache.getReviewById(isbn, reviewId));
+  }
+
+  @PostMapping("/reviews/batch")
+  public ResponseEntity<byte[]> getReviewsByIds(
+      @RequestBody @Valid ReviewBatchRequest reviewBatchRequest) {
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(reviewResponseCache.getReviewsByIds(reviewBatchRequest.reviews()));
+  }
+
+  private <T> ResponseEntity<List<T>> toResponse(String nextCursor, List<T> reviews) {
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+    if (nextCursor != null) {
+      response.header(NEXT_CURSOR_HEADER, nextCursor);
+    }
+
+    return response.body(reviews);
   }
 }
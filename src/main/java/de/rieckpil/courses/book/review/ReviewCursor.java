@@ -0,0 +1,38 @@
+package de.rieckpil.courses.book.review;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public record ReviewCursor(LocalDateTime createdAt, Long id) {
+
+  private static final String SEPARATOR = "|";
+
+  public static ReviewCursor of(ReviewSummary review) {
+    return new ReviewCursor(review.createdAt(), review.id());
+  }
+
+  public static ReviewCursor decode(String value) {
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+      int separatorIndex = decoded.lastIndexOf(SEPARATOR);
+
+      if (separatorIndex < 0) {
+        throw new InvalidReviewCursorException(value);
+      }
+
+      return new ReviewCursor(
+          LocalDateTime.parse(decoded.substring(0, separatorIndex)),
+          Long.valueOf(decoded.substring(separatorIndex + 1)));
+    } catch (IllegalArgumentException | DateTimeParseException exception) {
+      throw new InvalidReviewCursorException(value);
+    }
+  }
+
+  public String encode() {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString((createdAt + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,228 @@
+package de.rieckpil.courses.book.review;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// fan-out of created reviews: the write path only appends to a bounded ring buffer, dispatcher
+// threads deliver it to the subscribers, and subscribers lagging more than the buffer behind are
+// disconnected so they can resume with Last-Event-ID, as are subscribers whose connection blocks
+// a send for longer than the send timeout
+@Component
+public class ReviewEventStream {
+
+  static final String EVENT_NAME = "review";
+
+  private static final long NOT_SENDING = 0;
+  private static final long STALLED = -1;
+
+  private static final Logger LOG = LoggerFactory.getLogger(ReviewEventStream.class.getName());
+
+  // event ids restart with every deployment, the epoch keeps ids of an old deployment from
+  // resuming at a wrong position
+  private final long epoch = System.currentTimeMillis();
+
+  private final AtomicReferenceArray<StreamedReview> buffer;
+  private final AtomicLong lastSequence = new AtomicLong();
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final ExecutorService dispatcher;
+  private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor();
+  private final long timeoutMillis;
+  private final long sendTimeoutMillis;
+
+  public ReviewEventStream(
+      @Value("${reviews.stream.buffer-size:1024}") int bufferSize,
+      @Value("${reviews.stream.dispatcher-threads:4}") int dispatcherThreads,
+      @Value("${reviews.stream.timeout-millis:1800000}") long timeoutMillis,
+      @Value("${reviews.stream.send-timeout-millis:5000}") long sendTimeoutMillis) {
+    this.buffer = new AtomicReferenceArray<>(bufferSize);
+    this.dispatcher = Executors.newFixedThreadPool(dispatcherThreads);
+    this.timeoutMillis = timeoutMillis;
+    this.sendTimeoutMillis = sendTimeoutMillis;
+
+    watchdog.scheduleWithFixedDelay(
+        this::disconnectStalledSubscribers,
+        sendTimeoutMillis,
+        sendTimeoutMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  public SseEmitter subscribe(String lastEventId) {
+    Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMillis), resumeAfter(lastEventId));
+
+    subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+    subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+    subscriber.emitter.onError(error -> subscribers.remove(subscriber));
+
+    subscribers.add(subscriber);
+    subscriber.schedule();
+
+    return subscriber.emitter;
+  }
+
+  @TransactionalEventListener
+  public void onReviewCreated(ReviewCreatedEvent event) {
+    long sequence = lastSequence.incrementAndGet();
+    buffer.set(index(sequence), new StreamedReview(sequence, ReviewSummary.of(event.review())));
+
+    for (Subscriber subscriber : subscribers) {
+      subscriber.schedule();
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    watchdog.shutdownNow();
+    dispatcher.shutdownNow();
+    subscribers.forEach(subscriber -> subscriber.emitter.complete());
+  }
+
+  // a client that stopped reading blocks its send once the socket buffers are full, without the
+  // timeout it would hold a dispatcher thread and delay every other subscriber
+  private void disconnectStalledSubscribers() {
+    long now = System.currentTimeMillis();
+
+    for (Subscriber subscriber : subscribers) {
+      if (subscriber.disconnectIfStalled(now)) {
+        LOG.debug("Disconnecting review stream subscriber blocking a send");
+      }
+    }
+  }
+
+  private long resumeAfter(String lastEventId) {
+    long current = lastSequence.get();
+
+    if (lastEventId == null) {
+      return current;
+    }
+
+    String[] parts = lastEventId.split("-");
+
+    try {
+      if (parts.length == 2 && Long.parseLong(parts[0]) == epoch) {
+        // resume at the oldest buffered review if the client missed more than the buffer holds
+        long oldest = Math.max(0, current - buffer.length());
+        return Math.min(current, Math.max(oldest, Long.parseLong(parts[1])));
+      }
+    } catch (NumberFormatException exception) {
+      LOG.debug("Ignoring malformed Last-Event-ID '{}'", lastEventId);
+    }
+
+    return current;
+  }
+
+  private int index(long sequence) {
+    return (int) (sequence % buffer.length());
+  }
+
+  private String eventId(long sequence) {
+    return epoch + "-" + sequence;
+  }
+
+  private record StreamedReview(long sequence, ReviewSummary review) {}
+
+  private class Subscriber {
+
+    private final SseEmitter emitter;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile long lastSent;
+    private final AtomicLong sendStartedAt = new AtomicLong(NOT_SENDING);
+    private volatile Future<?> delivery;
+
+    Subscriber(SseEmitter emitter, long lastSent) {
+      this.emitter = emitter;
+      this.lastSent = lastSent;
+    }
+
+    // at most one pending or running delivery per subscriber
+    void schedule() {
+      if (scheduled.compareAndSet(false, true)) {
+        delivery = dispatcher.submit(this::deliver);
+      }
+    }
+
+    // completing the emitter here would wait for the lock the blocked send holds, so the stalled
+    // send is only claimed and the delivery completes the emitter once the send returns
+    boolean disconnectIfStalled(long now) {
+      long startedAt = sendStartedAt.get();
+
+      if (startedAt == NOT_SENDING
+          || startedAt == STALLED
+          || now - startedAt <= sendTimeoutMillis
+          || !sendStartedAt.compareAndSet(startedAt, STALLED)) {
+        return false;
+      }
+
+      subscribers.remove(this);
+
+      // the interrupt lets the container abort the blocked write before its own write timeout
+      Future<?> pendingDelivery = delivery;
+      if (pendingDelivery != null) {
+        pendingDelivery.cancel(true);
+      }
+      return true;
+    }
+
+    private void deliver() {
+      try {
+        long next = lastSent + 1;
+
+        while (next <= lastSequence.get()) {
+          StreamedReview streamedReview = buffer.get(index(next));
+
+          if (streamedReview == null || streamedReview.sequence() < next) {
+            // sequence reserved but not written yet, the writer schedules us again
+            break;
+          }
+
+          if (streamedReview.sequence() > next) {
+            LOG.debug("Disconnecting review stream subscriber lagging behind the buffer");
+            subscribers.remove(this);
+            emitter.complete();
+            return;
+          }
+
+          sendStartedAt.set(System.currentTimeMillis());
+          emitter.send(
+              SseEmitter.event().id(eventId(next)).name(EVENT_NAME).data(streamedReview.review()));
+
+          if (sendStartedAt.getAndSet(NOT_SENDING) == STALLED) {
+            emitter.completeWithError(
+                new TimeoutException("Sending to review stream subscriber timed out"));
+            return;
+          }
+          lastSent = next++;
+        }
+      } catch (IOException | IllegalStateException exception) {
+        subscribers.remove(this);
+        emitter.completeWithError(exception);
+        return;
+      } finally {
+        scheduled.set(false);
+      }
+
+      // a review published while we were finishing would otherwise wait for the next one
+      StreamedReview latest = buffer.get(index(lastSequence.get()));
+      if (latest != null && latest.sequence() > lastSent) {
+        schedule();
+      }
+    }
+  }
+}
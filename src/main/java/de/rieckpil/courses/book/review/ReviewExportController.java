@@ -0,0 +1,26 @@
+package de.rieckpil.courses.book.review;
+
+import java.io.IOException;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/books/reviews")
+public class ReviewExportController {
+
+  private final ReviewService reviewService;
+
+  public ReviewExportController(ReviewService reviewService) {
+    this.reviewService = reviewService;
+  }
+
+  @GetMapping("/export")
+  public void exportReviews(HttpServletResponse response) throws IOException {
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+    reviewService.exportReviews(response.getOutputStream());
+  }
+}
@@ -0,0 +1,77 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import de.rieckpil.courses.book.InvalidFieldSelectionException;
+
+public enum ReviewField {
+  REVIEW_ID("reviewId", "reviewId", ReviewSummary::id),
+  REVIEW_CONTENT("reviewContent", "content", ReviewSummary::content),
+  REVIEW_TITLE("reviewTitle", "title", ReviewSummary::title),
+  RATING("rating", "rating", ReviewSummary::rating),
+  BOOK_ISBN("bookIsbn", "bookIsbn", ReviewSummary::bookIsbn),
+  BOOK_TITLE("bookTitle", "bookTitle", ReviewSummary::bookTitle),
+  BOOK_THUMBNAIL_URL("bookThumbnailUrl", "bookThumbnailUrl", ReviewSummary::bookThumbnailUrl),
+  SUBMITTED_BY("submittedBy", "submittedBy", ReviewSummary::submittedBy),
+  SUBMITTED_AT(
+      "submittedAt",
+      "createdAt",
+      review ->
+          review
+              .createdAt()
+              .atZone(ReviewJsonComponent.SUBMISSION_ZONE)
+              .toInstant()
+              .toEpochMilli());
+
+  private final String jsonName;
+  private final String attribute;
+  private final Function<ReviewSummary, Object> extractor;
+
+  ReviewField(String jsonName, String attribute, Function<ReviewSummary, Object> extractor) {
+    this.jsonName = jsonName;
+    this.attribute = attribute;
+    this.extractor = extractor;
+  }
+
+  public String getJsonName() {
+    return jsonName;
+  }
+
+  String getAttribute() {
+    return attribute;
+  }
+
+  public static Set<ReviewField> parse(Collection<String> jsonNames) {
+    Set<ReviewField> fields = EnumSet.noneOf(ReviewField.class);
+
+    for (String jsonName : jsonNames) {
+      fields.add(
+          EnumSet.allOf(ReviewField.class).stream()
+              .filter(field -> field.jsonName.equals(jsonName.trim()))
+              .findFirst()
+              .orElseThrow(() -> new InvalidFieldSelectionException(jsonName)));
+    }
+
+    if (fields.isEmpty()) {
+      throw new InvalidFieldSelectionException("");
+    }
+
+    return fields;
+  }
+
+  // keeps the field order of the full representation
+  public static Map<String, Object> project(ReviewSummary review, Set<ReviewField> fields) {
+    Map<String, Object> result = new LinkedHashMap<>();
+
+    for (ReviewField field : fields) {
+      result.put(field.jsonName, field.extractor.apply(review));
+    }
+
+    return result;
+  }
+}
@@ -0,0 +1,51 @@
+package de.rieckpil.courses.book.review;
+
+import java.io.IOException;
+import java.time.ZoneId;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.boot.jackson.JsonComponent;
+
+@JsonComponent
+public class ReviewJsonComponent {
+
+  static final ZoneId SUBMISSION_ZONE = ZoneId.of("Europe/Berlin");
+
+  public static class ReviewSummarySerializer extends JsonSerializer<ReviewSummary> {
+
+    @Override
+    public void serialize(
+        ReviewSummary review, JsonGenerator generator, SerializerProvider serializerProvider)
+        throws IOException {
+      generator.writeStartObject();
+      generator.writeNumberField("reviewId", review.id());
+      generator.writeStringField("reviewContent", review.content());
+      generator.writeStringField("reviewTitle", review.title());
+      generator.writeNumberField("rating", review.rating());
+      generator.writeStringField("bookIsbn", review.bookIsbn());
+      generator.writeStringField("bookTitle", review.bookTitle());
+      generator.writeStringField("bookThumbnailUrl", review.bookThumbnailUrl());
+      generator.writeStringField("submittedBy", review.submittedBy());
+      generator.writeNumberField(
+          "submittedAt", review.createdAt().atZone(SUBMISSION_ZONE).toInstant().toEpochMilli());
+      generator.writeEndObject();
+    }
+  }
+
+  public static class ReviewStatisticSerializer extends JsonSerializer<ReviewStatistic> {
+
+    @Override
+    public void serialize(
+        ReviewStatistic statistic, JsonGenerator generator, SerializerProvider serializerProvider)
+        throws IOException {
+      generator.writeStartObject();
+      generator.writeNumberField("bookId", statistic.getId());
+      generator.writeStringField("isbn", statistic.getIsbn());
+      generator.writeNumberField("avg", statistic.getAvg());
+      generator.writeNumberField("ratings", statistic.getRatings());
+      generator.writeEndObject();
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.List;
+
+public record ReviewPage(List<ReviewSummary> reviews, String nextCursor) {
+
+  public static final int MAX_SIZE = 100;
+
+  // rejected instead of clamped so a client never silently receives fewer reviews than it asked for
+  public static void validateSize(int size) {
+    if (size < 1 || size > MAX_SIZE) {
+      throw new InvalidPageSizeException(size, MAX_SIZE);
+    }
+  }
+
+  // expects up to size + 1 reviews, the additional one only signals that there is a next page
+  public static ReviewPage of(List<ReviewSummary> requestedReviews, int size) {
+    boolean hasNextPage = size > 0 && requestedReviews.size() > size;
+
+    // cached first pages may hold more reviews than requested
+    if (requestedReviews.size() > size) {
+      requestedReviews = requestedReviews.subList(0, size);
+    }
+
+    String nextCursor =
+        hasNextPage ? ReviewCursor.of(requestedReviews.get(size - 1)).encode() : null;
+
+    return new ReviewPage(requestedReviews, nextCursor);
+  }
+}
@@ -0,0 +1,3 @@
+package de.rieckpil.courses.book.review;
+
+public record ReviewRatingCount(String isbn, Integer rating, Long reviews) {}
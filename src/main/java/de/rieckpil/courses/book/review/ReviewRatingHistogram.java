@@ -0,0 +1,3 @@
+package de.rieckpil.courses.book.review;
+
+public record ReviewRatingHistogram(String isbn, long[] ratings, long total) {}
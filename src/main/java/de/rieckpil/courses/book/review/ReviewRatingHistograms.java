@@ -0,0 +1,88 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class ReviewRatingHistograms implements ReviewReadModel {
+
+  static final int MAX_RATING = 5;
+
+  private final ReviewRepository reviewRepository;
+
+  private volatile ConcurrentMap<String, AtomicLongArray> histogramsByIsbn =
+      new ConcurrentHashMap<>();
+
+  public ReviewRatingHistograms(ReviewRepository reviewRepository) {
+    this.reviewRepository = reviewRepository;
+  }
+
+  @Override
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    ConcurrentMap<String, AtomicLongArray> rebuiltHistograms = new ConcurrentHashMap<>();
+
+    for (ReviewRatingCount count : reviewRepository.countReviewsByIsbnAndRating()) {
+      if (isValidRating(count.rating())) {
+        rebuiltHistograms
+            .computeIfAbsent(count.isbn(), isbn -> new AtomicLongArray(MAX_RATING + 1))
+            .addAndGet(count.rating(), count.reviews());
+      }
+    }
+
+    this.histogramsByIsbn = rebuiltHistograms;
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER)
+  @TransactionalEventListener
+  public void onReviewCreated(ReviewCreatedEvent event) {
+    Review review = event.review();
+
+    if (isValidRating(review.getRating())) {
+      histogramsByIsbn
+          .computeIfAbsent(review.getBook().getIsbn(), isbn -> new AtomicLongArray(MAX_RATING + 1))
+          .incrementAndGet(review.getRating());
+    }
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER)
+  @TransactionalEventListener
+  public void onReviewDeleted(ReviewDeletedEvent event) {
+    Review review = event.review();
+    AtomicLongArray histogram = histogramsByIsbn.get(review.getBook().getIsbn());
+
+    if (histogram != null && isValidRating(review.getRating())) {
+      histogram.decrementAndGet(review.getRating());
+    }
+  }
+
+  // returns null when no review for this isbn was ever seen
+  public ReviewRatingHistogram getHistogram(String isbn) {
+    AtomicLongArray histogram = histogramsByIsbn.get(isbn);
+
+    if (histogram == null) {
+      return null;
+    }
+
+    long[] ratings = new long[histogram.length()];
+    long total = 0;
+
+    for (int rating = 0; rating < ratings.length; rating++) {
+      ratings[rating] = histogram.get(rating);
+      total += ratings[rating];
+    }
+
+    return new ReviewRatingHistogram(isbn, ratings, total);
+  }
+
+  private static boolean isValidRating(Integer rating) {
+    return rating != null && rating >= 0 && rating <= MAX_RATING;
+  }
+}
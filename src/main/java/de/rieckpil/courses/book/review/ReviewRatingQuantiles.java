@@ -0,0 +1,122 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// ratings are integers from 0 to 5, so one counter per rating gives exact quantiles in constant
+// time and merges by adding counts
+@Component
+public class ReviewRatingQuantiles implements ReviewReadModel {
+
+  static final String CATALOG = "catalog";
+
+  private final ReviewRepository reviewRepository;
+
+  private volatile Histograms histograms = new Histograms();
+
+  public ReviewRatingQuantiles(ReviewRepository reviewRepository) {
+    this.reviewRepository = reviewRepository;
+  }
+
+  @Override
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    Histograms rebuiltHistograms = new Histograms();
+
+    for (GenreRatingCount count : reviewRepository.countReviewsByGenreAndRating()) {
+      rebuiltHistograms.add(count.genre(), count.rating(), count.reviews());
+    }
+
+    this.histograms = rebuiltHistograms;
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER)
+  @TransactionalEventListener
+  public void onReviewCreated(ReviewCreatedEvent event) {
+    Review review = event.review();
+    histograms.add(review.getBook().getGenre(), review.getRating(), 1);
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER)
+  @TransactionalEventListener
+  public void onReviewDeleted(ReviewDeletedEvent event) {
+    Review review = event.review();
+    histograms.add(review.getBook().getGenre(), review.getRating(), -1);
+  }
+
+  public RatingQuantiles getCatalogQuantiles() {
+    return toQuantiles(CATALOG, histograms.catalog);
+  }
+
+  public RatingQuantiles getGenreQuantiles(String genre) {
+    AtomicLongArray histogram = histograms.byGenre.get(genre);
+
+    if (histogram == null) {
+      throw new ReviewRollupNotFoundException();
+    }
+
+    return toQuantiles(genre, histogram);
+  }
+
+  private static RatingQuantiles toQuantiles(String name, AtomicLongArray histogram) {
+    long[] counts = new long[histogram.length()];
+    long ratings = 0;
+
+    for (int rating = 0; rating < counts.length; rating++) {
+      counts[rating] = histogram.get(rating);
+      ratings += counts[rating];
+    }
+
+    return new RatingQuantiles(
+        name, ratings, quantile(counts, ratings, 0.5), quantile(counts, ratings, 0.9));
+  }
+
+  // nearest-rank definition: the smallest rating covering at least quantile * ratings reviews
+  static Integer quantile(long[] counts, long ratings, double quantile) {
+    if (ratings == 0) {
+      return null;
+    }
+
+    long rank = Math.max(1, (long) Math.ceil(quantile * ratings));
+    long seen = 0;
+
+    for (int rating = 0; rating < counts.length; rating++) {
+      seen += counts[rating];
+      if (seen >= rank) {
+        return rating;
+      }
+    }
+
+    return counts.length - 1;
+  }
+
+  private static class Histograms {
+
+    private final AtomicLongArray catalog =
+        new AtomicLongArray(ReviewRatingHistograms.MAX_RATING + 1);
+    private final ConcurrentMap<String, AtomicLongArray> byGenre = new ConcurrentHashMap<>();
+
+    void add(String genre, Integer rating, long reviews) {
+      if (rating == null || rating < 0 || rating > ReviewRatingHistograms.MAX_RATING) {
+        return;
+      }
+
+      catalog.addAndGet(rating, reviews);
+
+      // books without a genre only count towards the catalog
+      if (genre != null) {
+        byGenre
+            .computeIfAbsent(
+                genre, key -> new AtomicLongArray(ReviewRatingHistograms.MAX_RATING + 1))
+            .addAndGet(rating, reviews);
+      }
+    }
+  }
+}
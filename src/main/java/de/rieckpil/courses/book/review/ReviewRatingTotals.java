@@ -0,0 +1,15 @@
+package de.rieckpil.courses.book.review;
+
+public interface ReviewRatingTotals {
+  Long getBookId();
+
+  String getIsbn();
+
+  String getAuthor();
+
+  String getGenre();
+
+  Long getRatings();
+
+  Long getRatingSum();
+}
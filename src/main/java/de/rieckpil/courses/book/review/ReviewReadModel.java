@@ -0,0 +1,12 @@
+package de.rieckpil.courses.book.review;
+
+import org.springframework.core.Ordered;
+
+// in-memory view kept up to date by review events, rebuild() reloads it from the database
+public interface ReviewReadModel {
+
+  // review event listeners of read models run before ContentVersions hands out a new reviews ETag
+  int LISTENER_ORDER = Ordered.LOWEST_PRECEDENCE - 100;
+
+  void rebuild();
+}
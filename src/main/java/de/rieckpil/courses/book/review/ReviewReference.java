@@ -0,0 +1,6 @@
+package de.rieckpil.courses.book.review;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+public record ReviewReference(@NotEmpty String isbn, @NotNull Long reviewId) {}
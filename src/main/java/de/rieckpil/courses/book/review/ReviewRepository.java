@@ -1,29 +1,233 @@
 package de.rieckpil.courses.book.review;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface ReviewRepository extends JpaRepository<Review, Long> {
+public interface ReviewRepository extends JpaRepository<Review, Long>, ReviewRepositoryCustom {
+
+  String SELECT_REVIEW_SUMMARY =
+      "SELECT new de.rieckpil.courses.book.review.ReviewSummary("
+          + "v.reviewId, v.title, v.content, v.rating, v.createdAt, "
+          + "v.bookIsbn, v.bookTitle, v.bookThumbnailUrl, v.submittedBy) "
+          + "FROM ReviewView v ";
+
+  String SELECT_REVIEW_VIEW_ROWS =
+      "SELECT r.id, r.title, r.content, r.rating, r.created_at, "
+          + "b.id, b.isbn, b.title, b.thumbnail_url, u.name "
+          + "FROM reviews r "
+          + "JOIN books b ON b.id = r.book_id "
+          + "JOIN users u ON u.id = r.user_id "
+          + "WHERE r.id BETWEEN :fromId AND :toId";
+
+  // same HyperLogLog layout as the V008 migration and HyperLogLog, restricted to one book
+  String SELECT_REVIEWER_SKETCH =
+      "SELECT :bookId, "
+          + "decode(string_agg(lpad(to_hex(COALESCE(h.rank, 0)), 2, '0'), '' "
+          + "ORDER BY g.register), 'hex') "
+          + "FROM generate_series(0, 4095) AS g (register) "
+          + "LEFT JOIN ("
+          + "SELECT CAST(CAST(substring(bits FROM 1 FOR 12) AS BIT(12)) AS INTEGER) AS register, "
+          + "MAX(COALESCE(NULLIF(position(B'1' IN substring(bits FROM 13)), 0), 53)) AS rank "
+          + "FROM (SELECT "
+          + "CAST('x' || substr(md5(CAST(user_id AS TEXT)), 1, 16) AS BIT(64)) AS bits "
+          + "FROM reviews WHERE book_id = :bookId AND user_id IS NOT NULL) hashes "
+          + "GROUP BY register"
+          + ") h ON h.register = g.register "
+          + "HAVING COUNT(h.register) > 0";
 
   @Query(
       value =
-          "SELECT id, ratings, isbn, avg "
-              + "FROM books "
-              + "JOIN "
-              + "(SELECT book_id, ROUND(AVG(rating), 2) AS avg, COUNT(*) ratings FROM reviews group by book_id) AS statistics "
-              + "ON statistics.book_id = id;",
+          "SELECT b.id, s.ratings, b.isbn, s.avg "
+              + "FROM review_statistics s "
+              + "JOIN books b ON b.id = s.book_id",
       nativeQuery = true)
   List<ReviewStatistic> getReviewStatistics();
 
-  List<Review> findTop5ByOrderByRatingDescCreatedAtDesc();
+  @Query(
+      value =
+          "SELECT b.id AS \"bookId\", b.isbn AS \"isbn\", b.author AS \"author\", "
+              + "b.genre AS \"genre\", s.ratings AS \"ratings\", s.rating_sum AS \"ratingSum\" "
+              + "FROM review_statistics s "
+              + "JOIN books b ON b.id = s.book_id",
+      nativeQuery = true)
+  List<ReviewRatingTotals> getReviewRatingTotals();
+
+  @Query(
+      "SELECT new de.rieckpil.courses.book.review.ReviewRatingCount(b.isbn, r.rating, COUNT(r)) "
+          + "FROM Review r JOIN r.book b "
+          + "GROUP BY b.isbn, r.rating")
+  List<ReviewRatingCount> countReviewsByIsbnAndRating();
+
+  @Query(
+      "SELECT new de.rieckpil.courses.book.review.GenreRatingCount(b.genre, r.rating, COUNT(r)) "
+          + "FROM Review r JOIN r.book b "
+          + "GROUP BY b.genre, r.rating")
+  List<GenreRatingCount> countReviewsByGenreAndRating();
+
+  @Query(
+      "SELECT new de.rieckpil.courses.book.review.ReviewActivity("
+          + "v.bookIsbn, v.bookTitle, v.createdAt) "
+          + "FROM ReviewView v "
+          + "WHERE v.createdAt >= :since")
+  List<ReviewActivity> findActivityCreatedSince(@Param("since") LocalDateTime since);
+
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO review_statistics (book_id, ratings, rating_sum, avg) "
+              + "VALUES (:bookId, 1, :rating, :rating) "
+              + "ON CONFLICT (book_id) DO UPDATE SET "
+              + "ratings = review_statistics.ratings + 1, "
+              + "rating_sum = review_statistics.rating_sum + EXCLUDED.rating_sum, "
+              + "avg = ROUND(CAST(review_statistics.rating_sum + EXCLUDED.rating_sum AS NUMERIC) "
+              + "/ (review_statistics.ratings + 1), 2)",
+      nativeQuery = true)
+  void addToReviewStatistics(@Param("bookId") Long bookId, @Param("rating") Integer rating);
+
+  @Modifying
+  @Query(
+      value =
+          "UPDATE review_statistics SET "
+              + "ratings = ratings - 1, "
+              + "rating_sum = rating_sum - :rating, "
+              + "avg = CASE WHEN ratings = 1 THEN 0 "
+              + "ELSE ROUND(CAST(rating_sum - :rating AS NUMERIC) / (ratings - 1), 2) END "
+              + "WHERE book_id = :bookId",
+      nativeQuery = true)
+  void removeFromReviewStatistics(@Param("bookId") Long bookId, @Param("rating") Integer rating);
+
+  @Modifying
+  @Query(
+      value = "DELETE FROM review_statistics WHERE book_id = :bookId AND ratings = 0",
+      nativeQuery = true)
+  void deleteEmptyReviewStatistics(@Param("bookId") Long bookId);
+
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO book_reviewer_sketches (book_id, registers) "
+              + "VALUES (:bookId, set_byte(decode(repeat('00', 4096), 'hex'), :register, :rank)) "
+              + "ON CONFLICT (book_id) DO UPDATE SET registers = "
+              + "set_byte(book_reviewer_sketches.registers, :register, "
+              + "GREATEST(get_byte(book_reviewer_sketches.registers, :register), :rank))",
+      nativeQuery = true)
+  void addToReviewerSketch(
+      @Param("bookId") Long bookId,
+      @Param("register") Integer register,
+      @Param("rank") Integer rank);
+
+  // a sketch cannot forget a reviewer, so it is recomputed from the remaining reviews instead
+  @Modifying(flushAutomatically = true)
+  @Query(
+      value =
+          "INSERT INTO book_reviewer_sketches (book_id, registers) "
+              + SELECT_REVIEWER_SKETCH
+              + " ON CONFLICT (book_id) DO UPDATE SET registers = EXCLUDED.registers",
+      nativeQuery = true)
+  void writeReviewerSketch(@Param("bookId") Long bookId);
+
+  @Modifying
+  @Query(
+      value =
+          "DELETE FROM book_reviewer_sketches WHERE book_id = :bookId "
+              + "AND NOT EXISTS (SELECT 1 FROM reviews WHERE book_id = :bookId)",
+      nativeQuery = true)
+  void deleteEmptyReviewerSketch(@Param("bookId") Long bookId);
+
+  @Query(
+      value =
+          "SELECT b.isbn AS \"isbn\", s.registers AS \"registers\" "
+              + "FROM book_reviewer_sketches s "
+              + "JOIN books b ON b.id = s.book_id",
+      nativeQuery = true)
+  List<ReviewerSketch> findReviewerSketches();
+
+  @Query(
+      value =
+          "SELECT b.isbn AS \"isbn\", s.registers AS \"registers\" "
+              + "FROM book_reviewer_sketches s "
+              + "JOIN books b ON b.id = s.book_id "
+              + "WHERE b.isbn = :isbn",
+      nativeQuery = true)
+  Optional<ReviewerSketch> findReviewerSketchByIsbn(@Param("isbn") String isbn);
+
+  @Query(SELECT_REVIEW_SUMMARY + "ORDER BY v.rating DESC, v.createdAt DESC, v.reviewId DESC")
+  List<ReviewSummary> findTopRatedSummaries(Pageable pageable);
+
+  @Query(SELECT_REVIEW_SUMMARY + "ORDER BY v.createdAt DESC, v.reviewId DESC")
+  List<ReviewSummary> findLatestSummaries(Pageable pageable);
+
+  @Query(
+      SELECT_REVIEW_SUMMARY
+          + "WHERE (v.createdAt, v.reviewId) < (:createdAt, :id) "
+          + "ORDER BY v.createdAt DESC, v.reviewId DESC")
+  List<ReviewSummary> findLatestSummariesCreatedBefore(
+      @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+  @Query(
+      SELECT_REVIEW_SUMMARY
+          + "WHERE v.bookIsbn = :isbn "
+          + "ORDER BY v.createdAt DESC, v.reviewId DESC")
+  List<ReviewSummary> findLatestSummariesByBookIsbn(@Param("isbn") String isbn, Pageable pageable);
+
+  @Query(
+      SELECT_REVIEW_SUMMARY
+          + "WHERE v.bookIsbn = :isbn "
+          + "AND (v.createdAt, v.reviewId) < (:createdAt, :id) "
+          + "ORDER BY v.createdAt DESC, v.reviewId DESC")
+  List<ReviewSummary> findLatestSummariesByBookIsbnCreatedBefore(
+      @Param("isbn") String isbn,
+      @Param("createdAt") LocalDateTime createdAt,
+      @Param("id") Long id,
+      Pageable pageable);
+
+  @Query(SELECT_REVIEW_SUMMARY + "WHERE v.reviewId = :reviewId AND v.bookIsbn = :isbn")
+  Optional<ReviewSummary> findSummaryByIdAndBookIsbn(
+      @Param("reviewId") Long reviewId, @Param("isbn") String isbn);
+
+  @Query(SELECT_REVIEW_SUMMARY + "WHERE v.reviewId IN :reviewIds")
+  List<ReviewSummary> findSummariesByIdIn(@Param("reviewIds") Collection<Long> reviewIds);
+
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query(SELECT_REVIEW_SUMMARY + "ORDER BY v.reviewId")
+  Stream<ReviewSummary> streamAllSummaries();
+
+  // upsert, so a rebuild chunk and a concurrent review creation cannot collide on the primary key
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO review_view (review_id, title, content, rating, created_at, "
+              + "book_id, book_isbn, book_title, book_thumbnail_url, submitted_by) "
+              + SELECT_REVIEW_VIEW_ROWS
+              + " ON CONFLICT (review_id) DO UPDATE SET "
+              + "title = EXCLUDED.title, content = EXCLUDED.content, rating = EXCLUDED.rating, "
+              + "created_at = EXCLUDED.created_at, book_id = EXCLUDED.book_id, "
+              + "book_isbn = EXCLUDED.book_isbn, book_title = EXCLUDED.book_title, "
+              + "book_thumbnail_url = EXCLUDED.book_thumbnail_url, "
+              + "submitted_by = EXCLUDED.submitted_by",
+      nativeQuery = true)
+  void writeReviewView(@Param("fromId") Long fromId, @Param("toId") Long toId);
 
-  List<Review> findAllByOrderByCreatedAtDesc(Pageable pageable);
+  @Query("SELECT MIN(r.id) FROM Review r")
+  Long findMinId();
 
-  void deleteByIdAndBookIsbn(Long reviewId, String isbn);
+  @Query("SELECT MAX(r.id) FROM Review r")
+  Long findMaxId();
 
-  Optional<Review> findByIdAndBookIsbn(Long reviewId, String isbn);
+  List<Review> deleteByIdAndBookIsbn(Long reviewId, String isbn);
 }
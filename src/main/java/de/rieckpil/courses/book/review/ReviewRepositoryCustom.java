@@ -0,0 +1,12 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.List;
+import java.util.Set;
+
+public interface ReviewRepositoryCustom {
+
+  // only the selected fields plus id and createdAt (needed for the cursor) are read, all other
+  // components of the returned summaries are null
+  List<ReviewSummary> findLatestSummaryFields(
+      Set<ReviewField> fields, ReviewCursor after, int limit);
+}
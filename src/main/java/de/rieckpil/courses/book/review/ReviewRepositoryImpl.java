@@ -0,0 +1,76 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+class ReviewRepositoryImpl implements ReviewRepositoryCustom {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public List<ReviewSummary> findLatestSummaryFields(
+      Set<ReviewField> fields, ReviewCursor after, int limit) {
+    CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+
+    Root<ReviewView> review = query.from(ReviewView.class);
+    Path<Long> id = review.get("reviewId");
+    Path<LocalDateTime> createdAt = review.get("createdAt");
+
+    List<Selection<?>> selections = new ArrayList<>();
+    selections.add(id.alias("id"));
+    selections.add(createdAt.alias("createdAt"));
+
+    for (ReviewField field : fields) {
+      if (field != ReviewField.REVIEW_ID && field != ReviewField.SUBMITTED_AT) {
+        selections.add(review.get(field.getAttribute()).alias(field.name()));
+      }
+    }
+
+    query.multiselect(selections);
+
+    if (after != null) {
+      // the criteria API has no row-value comparison, the leading bound keeps it an index range
+      query.where(
+          criteriaBuilder.lessThanOrEqualTo(createdAt, after.createdAt()),
+          criteriaBuilder.or(
+              criteriaBuilder.lessThan(createdAt, after.createdAt()),
+              criteriaBuilder.lessThan(id, after.id())));
+    }
+
+    query.orderBy(criteriaBuilder.desc(createdAt), criteriaBuilder.desc(id));
+
+    List<ReviewSummary> result = new ArrayList<>();
+
+    for (Tuple tuple : entityManager.createQuery(query).setMaxResults(limit).getResultList()) {
+      result.add(
+          new ReviewSummary(
+              tuple.get("id", Long.class),
+              get(tuple, fields, ReviewField.REVIEW_TITLE, String.class),
+              get(tuple, fields, ReviewField.REVIEW_CONTENT, String.class),
+              get(tuple, fields, ReviewField.RATING, Integer.class),
+              tuple.get("createdAt", LocalDateTime.class),
+              get(tuple, fields, ReviewField.BOOK_ISBN, String.class),
+              get(tuple, fields, ReviewField.BOOK_TITLE, String.class),
+              get(tuple, fields, ReviewField.BOOK_THUMBNAIL_URL, String.class),
+              get(tuple, fields, ReviewField.SUBMITTED_BY, String.class)));
+    }
+
+    return result;
+  }
+
+  private static <T> T get(Tuple tuple, Set<ReviewField> fields, ReviewField field, Class<T> type) {
+    return fields.contains(field) ? tuple.get(field.name(), type) : null;
+  }
+}
@@ -0,0 +1,124 @@
+package de.rieckpil.courses.book.review;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class ReviewResponseCache implements ReviewReadModel, MeterBinder {
+
+  static final String CACHE_NAME = "reviews.by-id";
+  static final String FOUND = "FOUND";
+  static final String NOT_FOUND = "NOT_FOUND";
+
+  private final ReviewService reviewService;
+  private final ObjectMapper objectMapper;
+  private final Cache<ReviewReference, byte[]> cache;
+
+  public ReviewResponseCache(
+      ReviewService reviewService,
+      ObjectMapper objectMapper,
+      @Value("${reviews.cache.max-weight-bytes:16777216}") long maxWeightBytes) {
+    this.reviewService = reviewService;
+    this.objectMapper = objectMapper;
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumWeight(maxWeightBytes)
+            .<ReviewReference, byte[]>weigher((key, json) -> key.isbn().length() + json.length)
+            .recordStats()
+            .build();
+  }
+
+  public byte[] getReviewById(String isbn, Long reviewId) {
+    // unknown reviews throw ReviewNotFoundException from the loader and are never cached
+    return cache.get(new ReviewReference(isbn, reviewId), this::loadReview);
+  }
+
+  // cached reviews are embedded as they are, all others are resolved with a single query
+  public byte[] getReviewsByIds(List<ReviewReference> references) {
+    Map<ReviewReference, byte[]> reviews = new HashMap<>(cache.getAllPresent(references));
+
+    Set<ReviewReference> missing = new HashSet<>(references);
+    missing.removeAll(reviews.keySet());
+
+    // not put into the cache: unlike a loading get, a put after the query is not ordered with
+    // the invalidation of a review deleted in between and would cache it again
+    reviewService
+        .getReviewsByIds(missing)
+        .forEach((reference, review) -> reviews.put(reference, serialize(review)));
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+      generator.writeStartArray();
+
+      for (ReviewReference reference : references) {
+        byte[] json = reviews.get(reference);
+
+        generator.writeStartObject();
+        generator.writeStringField("isbn", reference.isbn());
+        generator.writeNumberField("reviewId", reference.reviewId());
+        generator.writeStringField("status", json != null ? FOUND : NOT_FOUND);
+        if (json != null) {
+          generator.writeFieldName("review");
+          generator.writeRawValue(new String(json, StandardCharsets.UTF_8));
+        }
+        generator.writeEndObject();
+      }
+
+      generator.writeEndArray();
+    } catch (IOException exception) {
+      throw new IllegalStateException("Unable to serialize review batch", exception);
+    }
+
+    return outputStream.toByteArray();
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER)
+  @TransactionalEventListener
+  public void onReviewDeleted(ReviewDeletedEvent event) {
+    Review review = event.review();
+    cache.invalidate(new ReviewReference(review.getBook().getIsbn(), review.getId()));
+  }
+
+  @Override
+  public void rebuild() {
+    cache.invalidateAll();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+  }
+
+  private byte[] loadReview(ReviewReference reference) {
+    ReviewSummary review = reviewService.getReviewById(reference.isbn(), reference.reviewId());
+    return serialize(review);
+  }
+
+  private byte[] serialize(ReviewSummary review) {
+    try {
+      return objectMapper.writeValueAsBytes(review);
+    } catch (JsonProcessingException exception) {
+      throw new IllegalStateException("Unable to serialize review " + review.id(), exception);
+    }
+  }
+}
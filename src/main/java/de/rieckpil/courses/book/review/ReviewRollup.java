@@ -0,0 +1,5 @@
+package de.rieckpil.courses.book.review;
+
+import java.math.BigDecimal;
+
+public record ReviewRollup(String name, long books, long ratings, BigDecimal avg, long reviewers) {}
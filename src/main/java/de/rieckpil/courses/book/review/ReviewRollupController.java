@@ -0,0 +1,52 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.List;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/books/reviews/statistics")
+public class ReviewRollupController {
+
+  private final ReviewRollups reviewRollups;
+  private final ReviewRatingQuantiles reviewRatingQuantiles;
+
+  public ReviewRollupController(
+      ReviewRollups reviewRollups, ReviewRatingQuantiles reviewRatingQuantiles) {
+    this.reviewRollups = reviewRollups;
+    this.reviewRatingQuantiles = reviewRatingQuantiles;
+  }
+
+  @GetMapping("/quantiles")
+  public RatingQuantiles getCatalogQuantiles() {
+    return reviewRatingQuantiles.getCatalogQuantiles();
+  }
+
+  @GetMapping("/authors")
+  public List<ReviewRollup> getAuthorRollups() {
+    return reviewRollups.getAuthorRollups();
+  }
+
+  @GetMapping("/authors/{author}")
+  public ReviewRollup getAuthorRollup(@PathVariable String author) {
+    return reviewRollups.getAuthorRollup(author);
+  }
+
+  @GetMapping("/genres")
+  public List<ReviewRollup> getGenreRollups() {
+    return reviewRollups.getGenreRollups();
+  }
+
+  @GetMapping("/genres/{genre}")
+  public ReviewRollup getGenreRollup(@PathVariable String genre) {
+    return reviewRollups.getGenreRollup(genre);
+  }
+
+  @GetMapping("/genres/{genre}/quantiles")
+  public RatingQuantiles getGenreQuantiles(@PathVariable String genre) {
+    return reviewRatingQuantiles.getGenreQuantiles(genre);
+  }
+}
@@ -0,0 +1,206 @@
+package de.rieckpil.courses.book.review;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.rieckpil.courses.book.management.Book;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// review statistics per author and per genre, bootstrapped from review_statistics and then fed by
+// the same events as ReviewStatisticsAggregator
+@Component
+public class ReviewRollups implements ReviewReadModel {
+
+  private static final long ONE_REVIEW = 1L << 32;
+  private static final long RATING_SUM_MASK = ONE_REVIEW - 1;
+
+  private final ReviewRepository reviewRepository;
+  private final ReviewerSketches reviewerSketches;
+
+  private volatile Rollups rollups = new Rollups();
+
+  public ReviewRollups(ReviewRepository reviewRepository, ReviewerSketches reviewerSketches) {
+    this.reviewRepository = reviewRepository;
+    this.reviewerSketches = reviewerSketches;
+  }
+
+  @Override
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    Rollups rebuiltRollups = new Rollups();
+
+    for (ReviewRatingTotals totals : reviewRepository.getReviewRatingTotals()) {
+      for (Rollup rollup :
+          rebuiltRollups.of(totals.getIsbn(), totals.getAuthor(), totals.getGenre())) {
+        rollup.add(totals.getIsbn(), totals.getRatings(), totals.getRatingSum());
+      }
+    }
+
+    this.rollups = rebuiltRollups;
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER)
+  @TransactionalEventListener
+  public void onReviewCreated(ReviewCreatedEvent event) {
+    Review review = event.review();
+    Book book = review.getBook();
+    long reviewerHash = HyperLogLog.hash(review.getUser().getId());
+
+    for (Rollup rollup : rollups.of(book.getIsbn(), book.getAuthor(), book.getGenre())) {
+      rollup.add(book.getIsbn(), 1, review.getRating());
+      rollup.addReviewer(reviewerHash);
+    }
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER)
+  @TransactionalEventListener
+  public void onReviewDeleted(ReviewDeletedEvent event) {
+    Review review = event.review();
+    List<Rollup> bookRollups = rollups.byIsbn.get(review.getBook().getIsbn());
+
+    if (bookRollups != null) {
+      for (Rollup rollup : bookRollups) {
+        rollup.remove(review.getBook().getIsbn(), review.getRating());
+      }
+    }
+  }
+
+  public List<ReviewRollup> getAuthorRollups() {
+    return toRollups(rollups.byAuthor);
+  }
+
+  public List<ReviewRollup> getGenreRollups() {
+    return toRollups(rollups.byGenre);
+  }
+
+  public ReviewRollup getAuthorRollup(String author) {
+    return toRollup(rollups.byAuthor.get(author));
+  }
+
+  public ReviewRollup getGenreRollup(String genre) {
+    return toRollup(rollups.byGenre.get(genre));
+  }
+
+  private List<ReviewRollup> toRollups(ConcurrentMap<String, Rollup> rollupsByName) {
+    return rollupsByName.values().stream()
+        .map(this::toRollup)
+        .filter(rollup -> rollup.ratings() > 0)
+        .sorted(Comparator.comparing(ReviewRollup::name))
+        .toList();
+  }
+
+  private ReviewRollup toRollup(Rollup rollup) {
+    if (rollup == null) {
+      throw new ReviewRollupNotFoundException();
+    }
+
+    long packed = rollup.packed.get();
+    long ratings = packed >>> 32;
+    BigDecimal avg =
+        ratings == 0
+            ? BigDecimal.ZERO.setScale(2)
+            : BigDecimal.valueOf(packed & RATING_SUM_MASK)
+                .divide(BigDecimal.valueOf(ratings), 2, RoundingMode.HALF_UP);
+
+    return new ReviewRollup(
+        rollup.name, rollup.books.get(), ratings, avg, rollup.estimateReviewers());
+  }
+
+  private class Rollups {
+
+    private final ConcurrentMap<String, Rollup> byAuthor = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Rollup> byGenre = new ConcurrentHashMap<>();
+
+    // a book stays in the rollups it was first counted in until the next rebuild, even if a
+    // synchronization changes its author or genre in the meantime
+    private final ConcurrentMap<String, List<Rollup>> byIsbn = new ConcurrentHashMap<>();
+
+    List<Rollup> of(String isbn, String author, String genre) {
+      return byIsbn.computeIfAbsent(
+          isbn,
+          key -> {
+            List<Rollup> bookRollups = new ArrayList<>(2);
+            if (author != null) {
+              bookRollups.add(byAuthor.computeIfAbsent(author, Rollup::new));
+            }
+            if (genre != null) {
+              bookRollups.add(byGenre.computeIfAbsent(genre, Rollup::new));
+            }
+            return bookRollups;
+          });
+    }
+  }
+
+  private class Rollup {
+
+    private final String name;
+
+    // review count in the upper and rating sum in the lower 32 bits, as in the aggregator
+    private final AtomicLong packed = new AtomicLong();
+    private final ConcurrentMap<String, AtomicLong> ratingsByIsbn = new ConcurrentHashMap<>();
+    private final AtomicInteger books = new AtomicInteger();
+
+    // merged from the books' sketches on first access and dropped again when a review is deleted
+    private volatile HyperLogLog reviewers;
+
+    Rollup(String name) {
+      this.name = name;
+    }
+
+    void add(String isbn, long ratings, long ratingSum) {
+      long bookRatings =
+          ratingsByIsbn.computeIfAbsent(isbn, key -> new AtomicLong()).addAndGet(ratings);
+
+      if (bookRatings == ratings) {
+        books.incrementAndGet();
+      }
+
+      packed.addAndGet(ratings * ONE_REVIEW + ratingSum);
+    }
+
+    void remove(String isbn, long rating) {
+      AtomicLong bookRatings = ratingsByIsbn.get(isbn);
+
+      if (bookRatings == null) {
+        return;
+      }
+
+      if (bookRatings.decrementAndGet() == 0) {
+        books.decrementAndGet();
+      }
+
+      packed.addAndGet(-(ONE_REVIEW + rating));
+      reviewers = null;
+    }
+
+    void addReviewer(long reviewerHash) {
+      HyperLogLog sketch = reviewers;
+
+      if (sketch != null) {
+        sketch.add(reviewerHash);
+      }
+    }
+
+    long estimateReviewers() {
+      HyperLogLog sketch = reviewers;
+
+      if (sketch == null) {
+        sketch = reviewerSketches.union(ratingsByIsbn.keySet());
+        reviewers = sketch;
+      }
+
+      return sketch.estimate();
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.List;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/books/reviews")
+public class ReviewSearchController {
+
+  private final ReviewSearchIndex reviewSearchIndex;
+
+  public ReviewSearchController(ReviewSearchIndex reviewSearchIndex) {
+    this.reviewSearchIndex = reviewSearchIndex;
+  }
+
+  @GetMapping("/search")
+  public List<ReviewSummary> searchReviews(
+      @RequestParam(name = "q") String query,
+      @RequestParam(name = "size", defaultValue = "20") Integer size) {
+    return reviewSearchIndex.search(query, size);
+  }
+}
@@ -0,0 +1,424 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// inverted index over review title and content, ranked with BM25
+@Component
+public class ReviewSearchIndex implements ReviewReadModel {
+
+  private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final int MIN_TOKEN_LENGTH = 2;
+
+  // a term in the title counts as often as this many occurrences in the content
+  private static final int TITLE_WEIGHT = 2;
+
+  private static final double K1 = 1.2;
+  private static final double B = 0.75;
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  // deleted documents are dropped from the posting lists once they make up this share of the index
+  private static final double MAX_DELETED_SHARE = 0.25;
+  private static final int MIN_DELETED_FOR_COMPACTION = 64;
+
+  private final ReviewRepository reviewRepository;
+  private final int maxResults;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private Index index = new Index();
+
+  // changes arriving while rebuild() streams the reviews, replayed on the new index before the swap
+  private List<Consumer<Index>> pendingChanges;
+
+  public ReviewSearchIndex(
+      ReviewRepository reviewRepository,
+      @Value("${reviews.search.max-results:100}") int maxResults) {
+    this.reviewRepository = reviewRepository;
+    this.maxResults = maxResults;
+  }
+
+  public List<ReviewSummary> search(String query, int size) {
+    List<String> terms = tokenize(query);
+
+    if (terms.isEmpty()) {
+      throw new InvalidSearchQueryException(query);
+    }
+
+    List<Long> reviewIds;
+
+    lock.readLock().lock();
+    try {
+      reviewIds = index.search(new LinkedHashSet<>(terms), Math.min(size, maxResults));
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    if (reviewIds.isEmpty()) {
+      return List.of();
+    }
+
+    // reviews deleted since the search are silently skipped
+    Map<Long, ReviewSummary> reviews =
+        reviewRepository.findSummariesByIdIn(reviewIds).stream()
+            .collect(Collectors.toMap(ReviewSummary::id, Function.identity()));
+
+    return reviewIds.stream().map(reviews::get).filter(review -> review != null).toList();
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  @EventListener(ApplicationReadyEvent.class)
+  public synchronized void rebuild() {
+    Index rebuilt = new Index();
+
+    // start buffering before the query, a change is either part of its result or replayed below
+    lock.writeLock().lock();
+    try {
+      pendingChanges = new ArrayList<>();
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    try (Stream<ReviewSummary> reviews = reviewRepository.streamAllSummaries()) {
+      reviews.forEach(rebuilt::add);
+
+      lock.writeLock().lock();
+      try {
+        // adding and removing are idempotent, replaying changes the query already saw is harmless
+        pendingChanges.forEach(change -> change.accept(rebuilt));
+        this.index = rebuilt;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    } finally {
+      lock.writeLock().lock();
+      try {
+        pendingChanges = null;
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER)
+  @TransactionalEventListener
+  public void onReviewCreated(ReviewCreatedEvent event) {
+    ReviewSummary review = ReviewSummary.of(event.review());
+    apply(index -> index.add(review));
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER)
+  @TransactionalEventListener
+  public void onReviewDeleted(ReviewDeletedEvent event) {
+    Long reviewId = event.review().getId();
+    apply(index -> index.remove(reviewId));
+  }
+
+  int indexedDocuments() {
+    lock.readLock().lock();
+    try {
+      return index.documents;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void apply(Consumer<Index> change) {
+    lock.writeLock().lock();
+    try {
+      change.accept(index);
+
+      if (pendingChanges != null) {
+        pendingChanges.add(change);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  static List<String> tokenize(String text) {
+    if (text == null) {
+      return List.of();
+    }
+
+    return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+        .filter(token -> token.length() >= MIN_TOKEN_LENGTH)
+        .toList();
+  }
+
+  // documents are numbered in insertion order, so every posting list stays sorted by document
+  private static class Index {
+
+    private final Map<String, Postings> postingsByTerm = new HashMap<>();
+    private final Map<Long, Integer> documentsByReviewId = new HashMap<>();
+
+    // deleted documents stay in the posting lists and are skipped until the next compaction
+    private final BitSet deleted = new BitSet();
+    private int deletedDocuments;
+
+    private long[] reviewIds = new long[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int documents;
+    private long totalLength;
+
+    void add(ReviewSummary review) {
+      if (documentsByReviewId.containsKey(review.id())) {
+        return;
+      }
+
+      Map<String, Integer> frequencies = new HashMap<>();
+      tokenize(review.title()).forEach(term -> frequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+      tokenize(review.content()).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+
+      int document = documents++;
+
+      if (document == reviewIds.length) {
+        reviewIds = Arrays.copyOf(reviewIds, document * 2);
+        lengths = Arrays.copyOf(lengths, document * 2);
+      }
+
+      int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+      reviewIds[document] = review.id();
+      lengths[document] = length;
+      totalLength += length;
+
+      frequencies.forEach(
+          (term, frequency) ->
+              postingsByTerm.computeIfAbsent(term, key -> new Postings()).add(document, frequency));
+      documentsByReviewId.put(review.id(), document);
+    }
+
+    void remove(Long reviewId) {
+      Integer document = documentsByReviewId.remove(reviewId);
+
+      if (document != null) {
+        deleted.set(document);
+        deletedDocuments++;
+        totalLength -= lengths[document];
+
+        if (deletedDocuments >= MIN_DELETED_FOR_COMPACTION
+            && deletedDocuments > documents * MAX_DELETED_SHARE) {
+          compact();
+        }
+      }
+    }
+
+    // renumbers the live documents in their insertion order, so the posting lists stay sorted
+    private void compact() {
+      int[] renumbered = new int[documents];
+      int live = 0;
+
+      for (int document = 0; document < documents; document++) {
+        if (deleted.get(document)) {
+          renumbered[document] = -1;
+          continue;
+        }
+
+        renumbered[document] = live;
+        reviewIds[live] = reviewIds[document];
+        lengths[live] = lengths[document];
+        documentsByReviewId.put(reviewIds[live], live);
+        live++;
+      }
+
+      postingsByTerm.values().removeIf(postings -> postings.retain(renumbered) == 0);
+
+      int capacity = Math.max(INITIAL_CAPACITY, live * 2);
+      if (reviewIds.length > capacity) {
+        reviewIds = Arrays.copyOf(reviewIds, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+      }
+
+      documents = live;
+      deleted.clear();
+      deletedDocuments = 0;
+    }
+
+    List<Long> search(Set<String> terms, int size) {
+      int liveDocuments = documentsByReviewId.size();
+
+      if (liveDocuments == 0 || size <= 0) {
+        return List.of();
+      }
+
+      double averageLength = (double) totalLength / liveDocuments;
+
+      List<Postings> termPostings = new ArrayList<>(terms.size());
+      int maxMatches = 0;
+
+      for (String term : terms) {
+        Postings postings = postingsByTerm.get(term);
+
+        if (postings != null) {
+          termPostings.add(postings);
+          maxMatches += postings.size;
+        }
+      }
+
+      Scores scores = new Scores(Math.min(maxMatches, documents));
+
+      for (Postings postings : termPostings) {
+        // deleted documents still sit in the posting lists, they must not count towards the idf
+        int documentFrequency =
+            deletedDocuments == 0 ? postings.size : postings.liveDocuments(deleted);
+
+        if (documentFrequency == 0) {
+          continue;
+        }
+
+        double idf =
+            Math.log(1 + (liveDocuments - documentFrequency + 0.5) / (documentFrequency + 0.5));
+
+        for (int i = 0; i < postings.size; i++) {
+          int document = postings.documents[i];
+
+          if (deleted.get(document)) {
+            continue;
+          }
+
+          int frequency = postings.frequencies[i];
+          double score =
+              idf
+                  * frequency
+                  * (K1 + 1)
+                  / (frequency + K1 * (1 - B + B * lengths[document] / averageLength));
+
+          scores.add(document, score);
+        }
+      }
+
+      // min-heap of the slots holding the best documents, newer documents win ties
+      Comparator<Integer> byScore =
+          Comparator.<Integer>comparingDouble(slot -> scores.values[slot])
+              .thenComparingInt(slot -> scores.documents[slot]);
+      PriorityQueue<Integer> best = new PriorityQueue<>(byScore);
+
+      for (int slot = 0; slot < scores.documents.length; slot++) {
+        if (scores.documents[slot] == Scores.EMPTY) {
+          continue;
+        }
+
+        if (best.size() < size) {
+          best.add(slot);
+        } else if (byScore.compare(slot, best.peek()) > 0) {
+          best.poll();
+          best.add(slot);
+        }
+      }
+
+      List<Long> result = new ArrayList<>(best.size());
+      while (!best.isEmpty()) {
+        result.add(reviewIds[scores.documents[best.poll()]]);
+      }
+
+      Collections.reverse(result);
+      return result;
+    }
+  }
+
+  private static class Postings {
+
+    private int[] documents = new int[4];
+    private int[] frequencies = new int[4];
+    private int size;
+
+    void add(int document, int frequency) {
+      if (size == documents.length) {
+        documents = Arrays.copyOf(documents, size * 2);
+        frequencies = Arrays.copyOf(frequencies, size * 2);
+      }
+
+      documents[size] = document;
+      frequencies[size] = frequency;
+      size++;
+    }
+
+    int liveDocuments(BitSet deleted) {
+      int live = 0;
+
+      for (int i = 0; i < size; i++) {
+        if (!deleted.get(documents[i])) {
+          live++;
+        }
+      }
+
+      return live;
+    }
+
+    // keeps the postings of live documents under their new number and returns how many remain
+    int retain(int[] renumbered) {
+      int retained = 0;
+
+      for (int i = 0; i < size; i++) {
+        int document = renumbered[documents[i]];
+
+        if (document >= 0) {
+          documents[retained] = document;
+          frequencies[retained] = frequencies[i];
+          retained++;
+        }
+      }
+
+      size = retained;
+      return retained;
+    }
+  }
+
+  // open-addressing map from document to accumulated score, sized up front for every document the
+  // query terms can match so it never grows and never boxes a score
+  private static class Scores {
+
+    private static final int EMPTY = -1;
+
+    private final int[] documents;
+    private final double[] values;
+    private final int mask;
+
+    Scores(int maxDocuments) {
+      int capacity = Integer.highestOneBit(Math.max(1, maxDocuments * 2 - 1)) << 1;
+
+      documents = new int[capacity];
+      values = new double[capacity];
+      mask = capacity - 1;
+      Arrays.fill(documents, EMPTY);
+    }
+
+    void add(int document, double score) {
+      int slot = (document * 0x9E3779B9) & mask;
+
+      while (documents[slot] != EMPTY && documents[slot] != document) {
+        slot = (slot + 1) & mask;
+      }
+
+      documents[slot] = document;
+      values[slot] += score;
+    }
+  }
+}
@@ -1,17 +1,29 @@
 package de.rieckpil.courses.book.review;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import de.rieckpil.courses.book.management.Book;
+import de.rieckpil.courses.book.management.BookNotFoundException;
 import de.rieckpil.courses.book.management.BookRepository;
 import de.rieckpil.courses.book.management.UserService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -22,17 +34,37 @@ public class ReviewService {
   private final UserService userService;
   private final BookRepository bookRepository;
   private final ReviewRepository reviewRepository;
-  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final ObjectMapper objectMapper;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ReviewStatisticsAggregator reviewStatisticsAggregator;
+  private final TopRatedReviews topRatedReviews;
+  private final ReviewRatingHistograms reviewRatingHistograms;
+  private final BookReviewFirstPages bookReviewFirstPages;
+  private final ReviewerSketches reviewerSketches;
 
   public ReviewService(
       ReviewVerifier reviewVerifier,
       UserService userService,
       BookRepository bookRepository,
-      ReviewRepository reviewRepository) {
+      ReviewRepository reviewRepository,
+      ObjectMapper objectMapper,
+      ApplicationEventPublisher eventPublisher,
+      ReviewStatisticsAggregator reviewStatisticsAggregator,
+      TopRatedReviews topRatedReviews,
+      ReviewRatingHistograms reviewRatingHistograms,
+      BookReviewFirstPages bookReviewFirstPages,
+      ReviewerSketches reviewerSketches) {
     this.reviewVerifier = reviewVerifier;
     this.userService = userService;
     this.bookRepository = bookRepository;
     this.reviewRepository = reviewRepository;
+    this.objectMapper = objectMapper;
+    this.eventPublisher = eventPublisher;
+    this.reviewStatisticsAggregator = reviewStatisticsAggregator;
+    this.topRatedReviews = topRatedReviews;
+    this.reviewRatingHistograms = reviewRatingHistograms;
+    this.bookReviewFirstPages = bookReviewFirstPages;
+    this.reviewerSketches = reviewerSketches;
   }
 
   public Long createBookReview(
@@ -55,6 +87,12 @@ public class ReviewService {
       review.setCreatedAt(LocalDateTime.now());
 
       review = reviewRepository.save(review);
+      reviewRepository.writeReviewView(review.getId(), review.getId());
+      reviewRepository.addToReviewStatistics(book.getId(), review.getRating());
+      long reviewerHash = HyperLogLog.hash(review.getUser().getId());
+      reviewRepository.addToReviewerSketch(
+          book.getId(), HyperLogLog.register(reviewerHash), HyperLogLog.rank(reviewerHash));
+      eventPublisher.publishEvent(new ReviewCreatedEvent(review));
 
       return review.getId();
     } else {
@@ -62,65 +100,165 @@ public class ReviewService {
     }
   }
 
-  public ArrayNode getReviewStatistics() {
-    ArrayNode result = objectMapper.createArrayNode();
+  // served from memory, no need to bind a database connection for a transaction
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public List<ReviewStatistic> getReviewStatistics() {
+    return reviewStatisticsAggregator.getReviewStatistics();
+  }
 
-    reviewRepository.getReviewStatistics().stream()
-        .map(this::mapReviewStatistic)
-        .forEach(result::add);
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public ReviewRatingHistogram getRatingHistogram(String isbn) {
+    ReviewRatingHistogram histogram = reviewRatingHistograms.getHistogram(isbn);
 
-    return result;
+    if (histogram != null) {
+      return histogram;
+    }
+
+    // only books without any review end up here
+    if (bookRepository.findByIsbn(isbn) == null) {
+      throw new BookNotFoundException();
+    }
+
+    return new ReviewRatingHistogram(isbn, new long[ReviewRatingHistograms.MAX_RATING + 1], 0);
   }
 
-  public ArrayNode getAllReviews(Integer size, String orderBy) {
-    ArrayNode result = objectMapper.createArrayNode();
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public ReviewerCount getReviewerCount(String isbn) {
+    Long reviewers = reviewerSketches.estimateReviewers(isbn);
+
+    if (reviewers != null) {
+      return new ReviewerCount(isbn, reviewers);
+    }
+
+    if (bookRepository.findByIsbn(isbn) == null) {
+      throw new BookNotFoundException();
+    }
+
+    return new ReviewerCount(isbn, 0);
+  }
 
-    List<Review> requestedReviews;
+  public ReviewPage getAllReviews(Integer size, String orderBy, String after) {
+    ReviewPage.validateSize(size);
 
     if (orderBy.equals("rating")) {
-      requestedReviews = reviewRepository.findTop5ByOrderByRatingDescCreatedAtDesc();
+      return new ReviewPage(topRatedReviews.getTopRated(size), null);
+    }
+
+    // fetch one additional review to find out if there is a next page without a count query
+    PageRequest pageRequest = PageRequest.of(0, size + 1);
+    List<ReviewSummary> requestedReviews;
+
+    if (after == null) {
+      requestedReviews = reviewRepository.findLatestSummaries(pageRequest);
     } else {
-      requestedReviews = reviewRepository.findAllByOrderByCreatedAtDesc(PageRequest.of(0, size));
+      ReviewCursor cursor = ReviewCursor.decode(after);
+      requestedReviews =
+          reviewRepository.findLatestSummariesCreatedBefore(
+              cursor.createdAt(), cursor.id(), pageRequest);
     }
 
-    requestedReviews.stream().map(this::mapReview).forEach(result::add);
+    return ReviewPage.of(requestedReviews, size);
+  }
 
-    return result;
+  public ReviewPage getAllReviews(
+      Integer size, String orderBy, String after, Set<ReviewField> fields) {
+    ReviewPage.validateSize(size);
+
+    if (orderBy.equals("rating")) {
+      return new ReviewPage(topRatedReviews.getTopRated(size), null);
+    }
+
+    ReviewCursor cursor = after == null ? null : ReviewCursor.decode(after);
+
+    return ReviewPage.of(reviewRepository.findLatestSummaryFields(fields, cursor, size + 1), size);
   }
 
-  private ObjectNode mapReview(Review review) {
-    ObjectNode objectNode = objectMapper.createObjectNode();
-    objectNode.put("reviewId", review.getId());
-    objectNode.put("reviewContent", review.getContent());
-    objectNode.put("reviewTitle", review.getTitle());
-    objectNode.put("rating", review.getRating());
-    objectNode.put("bookIsbn", review.getBook().getIsbn());
-    objectNode.put("bookTitle", review.getBook().getTitle());
-    objectNode.put("bookThumbnailUrl", review.getBook().getThumbnailUrl());
-    objectNode.put("submittedBy", review.getUser().getName());
-    objectNode.put(
-        "submittedAt",
-        review.getCreatedAt().atZone(ZoneId.of("Europe/Berlin")).toInstant().toEpochMilli());
-    return objectNode;
+  public ReviewPage getBookReviews(String isbn, Integer size, String after) {
+    ReviewPage.validateSize(size);
+
+    if (after == null && size <= bookReviewFirstPages.getPageSize()) {
+      return ReviewPage.of(bookReviewFirstPages.getFirstPage(isbn), size);
+    }
+
+    List<ReviewSummary> requestedReviews;
+
+    if (after == null) {
+      requestedReviews =
+          reviewRepository.findLatestSummariesByBookIsbn(isbn, PageRequest.of(0, size + 1));
+    } else {
+      ReviewCursor cursor = ReviewCursor.decode(after);
+      requestedReviews =
+          reviewRepository.findLatestSummariesByBookIsbnCreatedBefore(
+              isbn, cursor.createdAt(), cursor.id(), PageRequest.of(0, size + 1));
+    }
+
+    if (requestedReviews.isEmpty() && bookRepository.findByIsbn(isbn) == null) {
+      throw new BookNotFoundException();
+    }
+
+    return ReviewPage.of(requestedReviews, size);
   }
 
-  private ObjectNode mapReviewStatistic(ReviewStatistic reviewStatistic) {
-    ObjectNode statistic = objectMapper.createObjectNode();
-    statistic.put("bookId", reviewStatistic.getId());
-    statistic.put("isbn", reviewStatistic.getIsbn());
-    statistic.put("avg", reviewStatistic.getAvg());
-    statistic.put("ratings", reviewStatistic.getRatings());
-    return statistic;
+  @Transactional(readOnly = true)
+  public void exportReviews(OutputStream outputStream) throws IOException {
+    // flushing after every review would send one chunk per row to the client
+    ObjectWriter reviewWriter =
+        objectMapper
+            .writerFor(ReviewSummary.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    try (Stream<ReviewSummary> reviews = reviewRepository.streamAllSummaries();
+        JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+
+      // the servlet container owns the response stream, every review is terminated by a newline
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      generator.setRootValueSeparator(null);
+
+      Iterator<ReviewSummary> iterator = reviews.iterator();
+
+      while (iterator.hasNext()) {
+        reviewWriter.writeValue(generator, iterator.next());
+        generator.writeRaw('\n');
+      }
+    }
   }
 
   public void deleteReview(String isbn, Long reviewId) {
-    this.reviewRepository.deleteByIdAndBookIsbn(reviewId, isbn);
+    for (Review review : this.reviewRepository.deleteByIdAndBookIsbn(reviewId, isbn)) {
+      Long bookId = review.getBook().getId();
+      this.reviewRepository.removeFromReviewStatistics(bookId, review.getRating());
+      this.reviewRepository.deleteEmptyReviewStatistics(bookId);
+      this.reviewRepository.writeReviewerSketch(bookId);
+      this.reviewRepository.deleteEmptyReviewerSketch(bookId);
+      this.eventPublisher.publishEvent(new ReviewDeletedEvent(review));
+    }
   }
 
-  public ObjectNode getReviewById(String isbn, Long reviewId) {
+  public ReviewSummary getReviewById(String isbn, Long reviewId) {
     return this.reviewRepository
-        .findByIdAndBookIsbn(reviewId, isbn)
-        .map(this::mapReview)
+        .findSummaryByIdAndBookIsbn(reviewId, isbn)
         .orElseThrow(ReviewNotFoundException::new);
   }
+
+  // unknown ids and ids of reviews belonging to another book are absent from the result
+  public Map<ReviewReference, ReviewSummary> getReviewsByIds(
+      Collection<ReviewReference> references) {
+    Map<ReviewReference, ReviewSummary> result = new HashMap<>();
+
+    if (references.isEmpty()) {
+      return result;
+    }
+
+    Set<Long> reviewIds =
+        references.stream().map(ReviewReference::reviewId).collect(Collectors.toSet());
+
+    for (ReviewSummary review : reviewRepository.findSummariesByIdIn(reviewIds)) {
+      ReviewReference reference = new ReviewReference(review.bookIsbn(), review.id());
+      if (references.contains(reference)) {
+        result.put(reference, review);
+      }
+    }
+
+    return result;
+  }
 }
@@ -0,0 +1,101 @@
+package de.rieckpil.courses.book.review;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.rieckpil.courses.book.management.Book;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class ReviewStatisticsAggregator implements ReviewReadModel {
+
+  // the review count lives in the upper and the rating sum in the lower 32 bits of one long, so a
+  // single read always returns a count and sum that belong together
+  private static final long ONE_REVIEW = 1L << 32;
+  private static final long RATING_SUM_MASK = ONE_REVIEW - 1;
+
+  private final ReviewRepository reviewRepository;
+
+  private volatile ConcurrentMap<Long, BookRatings> ratingsByBook = new ConcurrentHashMap<>();
+
+  public ReviewStatisticsAggregator(ReviewRepository reviewRepository) {
+    this.reviewRepository = reviewRepository;
+  }
+
+  @Override
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    ConcurrentMap<Long, BookRatings> rebuiltRatings = new ConcurrentHashMap<>();
+
+    for (ReviewRatingTotals totals : reviewRepository.getReviewRatingTotals()) {
+      BookRatings bookRatings = new BookRatings(totals.getBookId(), totals.getIsbn());
+      bookRatings.packed.set(totals.getRatings() * ONE_REVIEW + totals.getRatingSum());
+      rebuiltRatings.put(totals.getBookId(), bookRatings);
+    }
+
+    this.ratingsByBook = rebuiltRatings;
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER)
+  @TransactionalEventListener
+  public void onReviewCreated(ReviewCreatedEvent event) {
+    Book book = event.review().getBook();
+    ratingsByBook
+        .computeIfAbsent(book.getId(), bookId -> new BookRatings(bookId, book.getIsbn()))
+        .packed
+        .addAndGet(ONE_REVIEW + event.review().getRating());
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER)
+  @TransactionalEventListener
+  public void onReviewDeleted(ReviewDeletedEvent event) {
+    BookRatings bookRatings = ratingsByBook.get(event.review().getBook().getId());
+
+    if (bookRatings != null) {
+      bookRatings.packed.addAndGet(-(ONE_REVIEW + event.review().getRating()));
+    }
+  }
+
+  public List<ReviewStatistic> getReviewStatistics() {
+    List<ReviewStatistic> result = new ArrayList<>();
+
+    for (BookRatings bookRatings : ratingsByBook.values()) {
+      long packed = bookRatings.packed.get();
+      long ratings = packed >>> 32;
+
+      // books are kept after their last review is deleted, they only drop out of the statistics
+      if (ratings > 0) {
+        BigDecimal avg =
+            BigDecimal.valueOf(packed & RATING_SUM_MASK)
+                .divide(BigDecimal.valueOf(ratings), 2, RoundingMode.HALF_UP);
+        result.add(new BookStatistic(bookRatings.bookId, ratings, bookRatings.isbn, avg));
+      }
+    }
+
+    return result;
+  }
+
+  private static class BookRatings {
+
+    private final Long bookId;
+    private final String isbn;
+    private final AtomicLong packed = new AtomicLong();
+
+    BookRatings(Long bookId, String isbn) {
+      this.bookId = bookId;
+      this.isbn = isbn;
+    }
+  }
+
+  private record BookStatistic(Long getId, Long getRatings, String getIsbn, BigDecimal getAvg)
+      implements ReviewStatistic {}
+}
@@ -0,0 +1,25 @@
+package de.rieckpil.courses.book.review;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/books/reviews")
+public class ReviewStreamController {
+
+  private final ReviewEventStream reviewEventStream;
+
+  public ReviewStreamController(ReviewEventStream reviewEventStream) {
+    this.reviewEventStream = reviewEventStream;
+  }
+
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamCreatedReviews(
+      @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+    return reviewEventStream.subscribe(lastEventId);
+  }
+}
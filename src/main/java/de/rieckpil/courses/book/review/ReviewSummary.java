@@ -0,0 +1,28 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDateTime;
+
+public record ReviewSummary(
+    Long id,
+    String title,
+    String content,
+    Integer rating,
+    LocalDateTime createdAt,
+    String bookIsbn,
+    String bookTitle,
+    String bookThumbnailUrl,
+    String submittedBy) {
+
+  public static ReviewSummary of(Review review) {
+    return new ReviewSummary(
+        review.getId(),
+        review.getTitle(),
+        review.getContent(),
+        review.getRating(),
+        review.getCreatedAt(),
+        review.getBook().getIsbn(),
+        review.getBook().getTitle(),
+        review.getBook().getThumbnailUrl(),
+        review.getUser().getName());
+  }
+}
@@ -0,0 +1,45 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Immutable;
+
+// denormalised copy of reviews joined with books and users, written only through native queries
+// in ReviewRepository and BookRepository
+@Entity
+@Immutable
+@Table(name = "review_view")
+public class ReviewView {
+
+  @Id private Long reviewId;
+
+  @Column(nullable = false)
+  private String title;
+
+  @Column(nullable = false)
+  private String content;
+
+  @Column(nullable = false)
+  private Integer rating;
+
+  @Column(nullable = false)
+  private LocalDateTime createdAt;
+
+  @Column(nullable = false)
+  private Long bookId;
+
+  @Column(nullable = false)
+  private String bookIsbn;
+
+  @Column(nullable = false)
+  private String bookTitle;
+
+  private String bookThumbnailUrl;
+
+  @Column(nullable = false)
+  private String submittedBy;
+}
@@ -0,0 +1,85 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// regenerates review_view from reviews, books and users when the application is started with
+// --rebuild-review-view, e.g. after changing the denormalised columns
+@Component
+public class ReviewViewRebuilder implements ApplicationRunner {
+
+  public static final String REBUILD_OPTION = "rebuild-review-view";
+
+  private static final Logger LOG = LoggerFactory.getLogger(ReviewViewRebuilder.class.getName());
+
+  private final ReviewRepository reviewRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final int chunkSize;
+  private final int parallelism;
+
+  public ReviewViewRebuilder(
+      ReviewRepository reviewRepository,
+      TransactionTemplate transactionTemplate,
+      @Value("${reviews.view.rebuild.chunk-size:10000}") int chunkSize,
+      @Value("${reviews.view.rebuild.parallelism:4}") int parallelism) {
+    this.reviewRepository = reviewRepository;
+    this.transactionTemplate = transactionTemplate;
+    this.chunkSize = chunkSize;
+    this.parallelism = parallelism;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (args.containsOption(REBUILD_OPTION)) {
+      rebuild();
+    }
+  }
+
+  public void rebuild() {
+    Long minId = reviewRepository.findMinId();
+    Long maxId = reviewRepository.findMaxId();
+
+    if (minId == null) {
+      LOG.info("No reviews present, nothing to rebuild in review_view");
+      return;
+    }
+
+    LOG.info("Rebuilding review_view for review ids {} to {}", minId, maxId);
+
+    ExecutorService executorService = Executors.newFixedThreadPool(parallelism);
+
+    try {
+      List<CompletableFuture<Void>> chunks = new ArrayList<>();
+
+      // each id range is upserted in its own short transaction, so live writes are never blocked
+      // for longer than a single chunk
+      for (long chunkStart = minId; chunkStart <= maxId; chunkStart += chunkSize) {
+        long fromId = chunkStart;
+        long toId = Math.min(chunkStart + chunkSize - 1, maxId);
+        chunks.add(
+            CompletableFuture.runAsync(
+                () ->
+                    transactionTemplate.executeWithoutResult(
+                        status -> reviewRepository.writeReviewView(fromId, toId)),
+                executorService));
+      }
+
+      CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+    } finally {
+      executorService.shutdown();
+    }
+
+    LOG.info("Successfully rebuilt review_view");
+  }
+}
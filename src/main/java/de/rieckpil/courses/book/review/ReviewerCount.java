@@ -0,0 +1,3 @@
+package de.rieckpil.courses.book.review;
+
+public record ReviewerCount(String isbn, long reviewers) {}
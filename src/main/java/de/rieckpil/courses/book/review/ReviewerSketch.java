@@ -0,0 +1,7 @@
+package de.rieckpil.courses.book.review;
+
+public interface ReviewerSketch {
+  String getIsbn();
+
+  byte[] getRegisters();
+}
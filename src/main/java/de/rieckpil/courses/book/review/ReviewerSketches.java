@@ -0,0 +1,78 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// in-memory copy of book_reviewer_sketches, which ReviewService keeps up to date on every write
+@Component
+public class ReviewerSketches implements ReviewReadModel {
+
+  private final ReviewRepository reviewRepository;
+
+  private volatile ConcurrentMap<String, HyperLogLog> sketchesByIsbn = new ConcurrentHashMap<>();
+
+  public ReviewerSketches(ReviewRepository reviewRepository) {
+    this.reviewRepository = reviewRepository;
+  }
+
+  @Override
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    ConcurrentMap<String, HyperLogLog> rebuiltSketches = new ConcurrentHashMap<>();
+
+    for (ReviewerSketch sketch : reviewRepository.findReviewerSketches()) {
+      rebuiltSketches.put(sketch.getIsbn(), new HyperLogLog(sketch.getRegisters()));
+    }
+
+    this.sketchesByIsbn = rebuiltSketches;
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER)
+  @TransactionalEventListener
+  public void onReviewCreated(ReviewCreatedEvent event) {
+    Review review = event.review();
+
+    sketchesByIsbn
+        .computeIfAbsent(review.getBook().getIsbn(), isbn -> new HyperLogLog())
+        .add(HyperLogLog.hash(review.getUser().getId()));
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER)
+  @TransactionalEventListener
+  public void onReviewDeleted(ReviewDeletedEvent event) {
+    String isbn = event.review().getBook().getIsbn();
+
+    reviewRepository
+        .findReviewerSketchByIsbn(isbn)
+        .ifPresentOrElse(
+            sketch -> sketchesByIsbn.put(isbn, new HyperLogLog(sketch.getRegisters())),
+            () -> sketchesByIsbn.remove(isbn));
+  }
+
+  // returns null when no review for this isbn was ever seen
+  public Long estimateReviewers(String isbn) {
+    HyperLogLog sketch = sketchesByIsbn.get(isbn);
+    return sketch == null ? null : sketch.estimate();
+  }
+
+  // readers who reviewed several of the books are only counted once in the union's estimate
+  public HyperLogLog union(Collection<String> isbns) {
+    HyperLogLog union = new HyperLogLog();
+
+    for (String isbn : isbns) {
+      HyperLogLog sketch = sketchesByIsbn.get(isbn);
+      if (sketch != null) {
+        union.merge(sketch);
+      }
+    }
+
+    return union;
+  }
+}
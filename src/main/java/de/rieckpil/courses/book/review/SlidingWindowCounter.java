@@ -0,0 +1,55 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.Duration;
+
+// ring of fixed-size time buckets, each slot remembers which bucket it currently counts
+class SlidingWindowCounter {
+
+  private final long bucketMillis;
+  private final long[] buckets;
+  private final long[] counts;
+
+  SlidingWindowCounter(Duration bucketSize, int bucketCount) {
+    this.bucketMillis = bucketSize.toMillis();
+    this.buckets = new long[bucketCount];
+    this.counts = new long[bucketCount];
+  }
+
+  synchronized void add(long epochMillis, long delta) {
+    long bucket = Math.floorDiv(epochMillis, bucketMillis);
+    int slot = (int) Math.floorMod(bucket, buckets.length);
+
+    if (buckets[slot] > bucket) {
+      // older than the ring reaches
+      return;
+    }
+
+    if (buckets[slot] < bucket) {
+      if (delta < 0) {
+        return;
+      }
+      buckets[slot] = bucket;
+      counts[slot] = 0;
+    }
+
+    counts[slot] = Math.max(0, counts[slot] + delta);
+  }
+
+  // sums the bucketCount buckets up to and including the one that contains epochMillis
+  synchronized long sum(long epochMillis, int bucketCount) {
+    long current = Math.floorDiv(epochMillis, bucketMillis);
+    long total = 0;
+
+    for (long bucket = current - Math.min(bucketCount, buckets.length) + 1;
+        bucket <= current;
+        bucket++) {
+      int slot = (int) Math.floorMod(bucket, buckets.length);
+
+      if (buckets[slot] == bucket) {
+        total += counts[slot];
+      }
+    }
+
+    return total;
+  }
+}
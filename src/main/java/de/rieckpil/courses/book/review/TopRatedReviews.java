@@ -0,0 +1,121 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class TopRatedReviews implements ReviewReadModel {
+
+  // same order as ReviewRepository.findTopRatedSummaries
+  private static final Comparator<ReviewSummary> BY_RATING =
+      Comparator.comparing(ReviewSummary::rating, Comparator.reverseOrder())
+          .thenComparing(ReviewSummary::createdAt, Comparator.<LocalDateTime>reverseOrder())
+          .thenComparing(ReviewSummary::id, Comparator.reverseOrder());
+
+  private final ReviewRepository reviewRepository;
+  private final int capacity;
+
+  private volatile Ranking globalRanking;
+
+  public TopRatedReviews(
+      ReviewRepository reviewRepository, @Value("${reviews.top-rated.capacity:100}") int capacity) {
+    this.reviewRepository = reviewRepository;
+    this.capacity = capacity;
+    this.globalRanking = new Ranking(List::of);
+  }
+
+  public List<ReviewSummary> getTopRated(int size) {
+    return globalRanking.top(size);
+  }
+
+  @Override
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    Ranking ranking =
+        new Ranking(() -> reviewRepository.findTopRatedSummaries(PageRequest.of(0, capacity)));
+    ranking.reload();
+
+    this.globalRanking = ranking;
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER)
+  @TransactionalEventListener
+  public void onReviewCreated(ReviewCreatedEvent event) {
+    globalRanking.add(ReviewSummary.of(event.review()));
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER)
+  @TransactionalEventListener
+  public void onReviewDeleted(ReviewDeletedEvent event) {
+    globalRanking.remove(event.review().getId());
+  }
+
+  private class Ranking {
+
+    private final Supplier<List<ReviewSummary>> loader;
+
+    // replaced as a whole on reload so readers never iterate a half-filled ranking
+    private volatile NavigableSet<ReviewSummary> reviews = new ConcurrentSkipListSet<>(BY_RATING);
+
+    Ranking(Supplier<List<ReviewSummary>> loader) {
+      this.loader = loader;
+    }
+
+    List<ReviewSummary> top(int size) {
+      // a ranking never holds more than capacity reviews, larger sizes are capped implicitly
+      List<ReviewSummary> result = new ArrayList<>();
+
+      for (ReviewSummary review : reviews) {
+        if (result.size() >= size) {
+          break;
+        }
+        result.add(review);
+      }
+
+      return result;
+    }
+
+    synchronized void add(ReviewSummary review) {
+      // a full ranking only accepts reviews that beat its current last entry
+      if (reviews.size() >= capacity
+          && !reviews.isEmpty()
+          && BY_RATING.compare(review, reviews.last()) > 0) {
+        return;
+      }
+
+      reviews.add(review);
+
+      if (reviews.size() > capacity) {
+        reviews.pollLast();
+      }
+    }
+
+    synchronized void remove(Long reviewId) {
+      boolean wasFull = reviews.size() >= capacity;
+
+      // the review that moves up into the freed slot is only known to the database
+      if (reviews.removeIf(review -> review.id().equals(reviewId)) && wasFull) {
+        reload();
+      }
+    }
+
+    synchronized void reload() {
+      NavigableSet<ReviewSummary> loaded = new ConcurrentSkipListSet<>(BY_RATING);
+      loaded.addAll(loader.get());
+      reviews = loaded;
+    }
+  }
+}
@@ -0,0 +1,275 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// review counts per book in minute buckets for the last hour and hour buckets for the last week.
+// Reads are served from the top books of each window, which writes keep up to date and which are
+// only ranked from all books again once the window slid by a bucket.
+@Component
+public class TrendingBooks implements ReviewReadModel {
+
+  private static final Duration MINUTE = Duration.ofMinutes(1);
+  private static final Duration HOUR = Duration.ofHours(1);
+  private static final int MINUTE_BUCKETS = 60;
+  private static final int HOUR_BUCKETS = 7 * 24;
+
+  private static final Comparator<TrendingBook> BY_REVIEWS =
+      Comparator.comparingLong(TrendingBook::reviews)
+          .thenComparing(TrendingBook::isbn, Comparator.reverseOrder());
+
+  private final ReviewRepository reviewRepository;
+  private final Clock clock;
+  private final int maxResults;
+
+  private volatile ConcurrentMap<String, BookActivity> activityByIsbn = new ConcurrentHashMap<>();
+
+  // replaced as a whole, read without locking and written while holding the monitor of this
+  private final ConcurrentMap<TrendingWindow, Ranking> rankings = new ConcurrentHashMap<>();
+
+  private final AtomicLong nextEviction = new AtomicLong();
+
+  public TrendingBooks(
+      ReviewRepository reviewRepository,
+      Clock clock,
+      @Value("${books.trending.max-results:100}") int maxResults) {
+    this.reviewRepository = reviewRepository;
+    this.clock = clock;
+    this.maxResults = maxResults;
+  }
+
+  @Override
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    ConcurrentMap<String, BookActivity> rebuiltActivity = new ConcurrentHashMap<>();
+    LocalDateTime since = LocalDateTime.now(clock).minusHours(HOUR_BUCKETS);
+
+    for (ReviewActivity activity : reviewRepository.findActivityCreatedSince(since)) {
+      rebuiltActivity
+          .computeIfAbsent(activity.isbn(), isbn -> new BookActivity())
+          .add(activity.bookTitle(), toEpochMillis(activity.createdAt()), 1);
+    }
+
+    synchronized (this) {
+      this.activityByIsbn = rebuiltActivity;
+      rankings.clear();
+    }
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER)
+  @TransactionalEventListener
+  public void onReviewCreated(ReviewCreatedEvent event) {
+    Review review = event.review();
+
+    // counted inside compute so an idle book evicted concurrently cannot swallow it
+    BookActivity activity =
+        activityByIsbn.compute(
+            review.getBook().getIsbn(),
+            (isbn, current) -> {
+              BookActivity updated = current != null ? current : new BookActivity();
+              updated.add(review.getBook().getTitle(), toEpochMillis(review.getCreatedAt()), 1);
+              return updated;
+            });
+
+    updateRankings(review.getBook().getIsbn(), activity, false);
+
+    // only reviews add books, so this is the only place that needs to drop idle ones
+    evictIdleBooks();
+  }
+
+  @Order(ReviewReadModel.LISTENER_ORDER)
+  @TransactionalEventListener
+  public void onReviewDeleted(ReviewDeletedEvent event) {
+    Review review = event.review();
+
+    BookActivity activity =
+        activityByIsbn.computeIfPresent(
+            review.getBook().getIsbn(),
+            (isbn, current) -> {
+              current.add(review.getBook().getTitle(), toEpochMillis(review.getCreatedAt()), -1);
+              return current;
+            });
+
+    if (activity != null) {
+      updateRankings(review.getBook().getIsbn(), activity, true);
+    }
+  }
+
+  public List<TrendingBook> getTrending(TrendingWindow window, int size) {
+    long now = clock.millis();
+    Ranking ranking = rankings.get(window);
+
+    if (ranking == null || ranking.bucket() != bucket(window, now)) {
+      ranking = rank(window, now);
+    }
+
+    List<TrendingBook> books = ranking.books();
+    return books.subList(0, Math.min(size, books.size()));
+  }
+
+  int trackedBooks() {
+    return activityByIsbn.size();
+  }
+
+  // counts only change with a write or once the window slides by a bucket, so the scan over all
+  // books runs at most once per bucket and window
+  private synchronized Ranking rank(TrendingWindow window, long now) {
+    long bucket = bucket(window, now);
+    Ranking ranking = rankings.get(window);
+
+    if (ranking != null && ranking.bucket() == bucket) {
+      return ranking;
+    }
+
+    PriorityQueue<TrendingBook> best = new PriorityQueue<>(BY_REVIEWS);
+
+    for (Map.Entry<String, BookActivity> entry : activityByIsbn.entrySet()) {
+      long reviews = entry.getValue().count(window, now);
+
+      if (reviews > 0) {
+        best.add(new TrendingBook(entry.getKey(), entry.getValue().title, reviews));
+        if (best.size() > maxResults) {
+          best.poll();
+        }
+      }
+    }
+
+    List<TrendingBook> books = new ArrayList<>(best);
+    books.sort(BY_REVIEWS.reversed());
+
+    ranking = new Ranking(bucket, List.copyOf(books));
+    rankings.put(window, ranking);
+    return ranking;
+  }
+
+  private synchronized void updateRankings(String isbn, BookActivity activity, boolean decreased) {
+    long now = clock.millis();
+
+    for (Map.Entry<TrendingWindow, Ranking> entry : rankings.entrySet()) {
+      TrendingWindow window = entry.getKey();
+      Ranking ranking = entry.getValue();
+
+      Ranking updated =
+          ranking.bucket() == bucket(window, now)
+              ? ranking.update(
+                  new TrendingBook(isbn, activity.title, activity.count(window, now)),
+                  decreased,
+                  maxResults)
+              : null;
+
+      if (updated == null) {
+        rankings.remove(window);
+      } else {
+        rankings.put(window, updated);
+      }
+    }
+  }
+
+  // books without reviews in the last week are dropped until their next review, at most once per
+  // hour so the sweep over all books does not run with every review
+  private void evictIdleBooks() {
+    long now = clock.millis();
+    long scheduled = nextEviction.get();
+
+    if (now < scheduled || !nextEviction.compareAndSet(scheduled, now + HOUR.toMillis())) {
+      return;
+    }
+
+    ConcurrentMap<String, BookActivity> activities = activityByIsbn;
+
+    for (Map.Entry<String, BookActivity> entry : activities.entrySet()) {
+      if (entry.getValue().isIdle(now)) {
+        activities.computeIfPresent(
+            entry.getKey(), (isbn, current) -> current.isIdle(now) ? null : current);
+      }
+    }
+  }
+
+  private long toEpochMillis(LocalDateTime createdAt) {
+    return createdAt.atZone(clock.getZone()).toInstant().toEpochMilli();
+  }
+
+  private static Duration bucketSize(TrendingWindow window) {
+    return window.getDuration().compareTo(HOUR) <= 0 ? MINUTE : HOUR;
+  }
+
+  private static long bucket(TrendingWindow window, long now) {
+    return Math.floorDiv(now, bucketSize(window).toMillis());
+  }
+
+  // the best books of a window in the bucket it was ranked in, holding every book with reviews in
+  // the window as long as it is not full
+  private record Ranking(long bucket, List<TrendingBook> books) {
+
+    // null once a book outside of the ranking might have overtaken the decreased one
+    Ranking update(TrendingBook book, boolean decreased, int capacity) {
+      List<TrendingBook> updated = new ArrayList<>(books.size() + 1);
+      boolean ranked = false;
+
+      for (TrendingBook current : books) {
+        if (current.isbn().equals(book.isbn())) {
+          ranked = true;
+        } else {
+          updated.add(current);
+        }
+      }
+
+      if (decreased && !ranked) {
+        return this;
+      }
+
+      if (decreased && books.size() == capacity) {
+        return null;
+      }
+
+      if (book.reviews() > 0) {
+        updated.add(book);
+        updated.sort(BY_REVIEWS.reversed());
+      }
+
+      return new Ranking(
+          bucket, List.copyOf(updated.subList(0, Math.min(capacity, updated.size()))));
+    }
+  }
+
+  private static class BookActivity {
+
+    private final SlidingWindowCounter perMinute = new SlidingWindowCounter(MINUTE, MINUTE_BUCKETS);
+    private final SlidingWindowCounter perHour = new SlidingWindowCounter(HOUR, HOUR_BUCKETS);
+
+    private volatile String title;
+
+    void add(String title, long epochMillis, long delta) {
+      this.title = title;
+      perMinute.add(epochMillis, delta);
+      perHour.add(epochMillis, delta);
+    }
+
+    long count(TrendingWindow window, long now) {
+      Duration bucketSize = bucketSize(window);
+      SlidingWindowCounter counter = bucketSize.equals(MINUTE) ? perMinute : perHour;
+
+      return counter.sum(now, (int) window.getDuration().dividedBy(bucketSize));
+    }
+
+    boolean isIdle(long now) {
+      return perHour.sum(now, HOUR_BUCKETS) == 0;
+    }
+  }
+}
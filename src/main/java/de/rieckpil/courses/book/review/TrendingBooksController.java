@@ -0,0 +1,35 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/books")
+public class TrendingBooksController {
+
+  private final TrendingBooks trendingBooks;
+  private final int maxResults;
+
+  public TrendingBooksController(
+      TrendingBooks trendingBooks, @Value("${books.trending.max-results:100}") int maxResults) {
+    this.trendingBooks = trendingBooks;
+    this.maxResults = maxResults;
+  }
+
+  @GetMapping("/trending")
+  public List<TrendingBook> getTrendingBooks(
+      @RequestParam(name = "window", defaultValue = "24h") String window,
+      @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    if (size < 1) {
+      throw new InvalidPageSizeException(size, maxResults);
+    }
+
+    // sizes above the maximum are capped, the ranking never holds more books than that
+    return trendingBooks.getTrending(TrendingWindow.parse(window), Math.min(size, maxResults));
+  }
+}
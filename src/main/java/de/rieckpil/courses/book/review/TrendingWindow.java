@@ -0,0 +1,31 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.Duration;
+
+public enum TrendingWindow {
+  ONE_HOUR("1h", Duration.ofHours(1)),
+  ONE_DAY("24h", Duration.ofDays(1)),
+  ONE_WEEK("7d", Duration.ofDays(7));
+
+  private final String value;
+  private final Duration duration;
+
+  TrendingWindow(String value, Duration duration) {
+    this.value = value;
+    this.duration = duration;
+  }
+
+  public Duration getDuration() {
+    return duration;
+  }
+
+  public static TrendingWindow parse(String value) {
+    for (TrendingWindow window : values()) {
+      if (window.value.equals(value)) {
+        return window;
+      }
+    }
+
+    throw new InvalidTrendingWindowException(value);
+  }
+}
@@ -2,6 +2,7 @@ package de.rieckpil.courses.config;
 
 import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.MetricsEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -22,12 +23,30 @@ public class WebSecurityConfig {
                 authorize
                     .requestMatchers(HttpMethod.GET, "/api/books")
                     .permitAll()
+                    .requestMatchers(HttpMethod.GET, "/api/books/trending")
+                    .permitAll()
+                    .requestMatchers(HttpMethod.GET, "/api/books/leaderboard")
+                    .permitAll()
                     .requestMatchers(HttpMethod.GET, "/api/books/reviews")
                     .permitAll()
+                    .requestMatchers(HttpMethod.GET, "/api/books/reviews/stream")
+                    .permitAll()
+                    .requestMatchers(HttpMethod.GET, "/api/books/reviews/search")
+                    .permitAll()
+                    .requestMatchers(HttpMethod.GET, "/api/books/*/reviews")
+                    .permitAll()
+                    .requestMatchers(HttpMethod.GET, "/api/reactive/books")
+                    .permitAll()
+                    .requestMatchers(HttpMethod.GET, "/api/reactive/books/reviews")
+                    .permitAll()
+                    .requestMatchers(HttpMethod.GET, "/api/reactive/books/*/reviews")
+                    .permitAll()
                     .requestMatchers("/api/**")
                     .authenticated()
                     .requestMatchers(EndpointRequest.to(HealthEndpoint.class))
                     .permitAll()
+                    .requestMatchers(EndpointRequest.to(MetricsEndpoint.class))
+                    .authenticated()
                     .anyRequest()
                     .permitAll())
         .sessionManagement()
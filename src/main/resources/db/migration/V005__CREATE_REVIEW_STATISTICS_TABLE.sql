@@ -0,0 +1,12 @@
+CREATE TABLE review_statistics (
+  book_id BIGINT PRIMARY KEY REFERENCES books ON DELETE CASCADE,
+  ratings BIGINT NOT NULL,
+  rating_sum BIGINT NOT NULL,
+  avg NUMERIC(12, 2) NOT NULL
+);
+
+INSERT INTO review_statistics (book_id, ratings, rating_sum, avg)
+SELECT book_id, COUNT(*), SUM(rating), ROUND(AVG(rating), 2)
+FROM reviews
+WHERE book_id IS NOT NULL
+GROUP BY book_id;
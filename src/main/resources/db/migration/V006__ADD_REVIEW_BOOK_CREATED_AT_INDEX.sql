@@ -0,0 +1 @@
+CREATE INDEX idx_reviews_book_id_created_at_id ON reviews (book_id, created_at DESC, id DESC);
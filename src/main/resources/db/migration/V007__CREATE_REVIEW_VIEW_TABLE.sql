@@ -0,0 +1,21 @@
+CREATE TABLE review_view (
+  review_id BIGINT PRIMARY KEY REFERENCES reviews ON DELETE CASCADE,
+  title VARCHAR(255) NOT NULL,
+  content TEXT NOT NULL,
+  rating INTEGER NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  book_id BIGINT NOT NULL,
+  book_isbn VARCHAR(13) NOT NULL,
+  book_title VARCHAR(255) NOT NULL,
+  book_thumbnail_url VARCHAR(255),
+  submitted_by VARCHAR(255) NOT NULL
+);
+
+CREATE INDEX idx_review_view_created_at_id ON review_view (created_at DESC, review_id DESC);
+CREATE INDEX idx_review_view_book_isbn_created_at_id ON review_view (book_isbn, created_at DESC, review_id DESC);
+
+INSERT INTO review_view (review_id, title, content, rating, created_at, book_id, book_isbn, book_title, book_thumbnail_url, submitted_by)
+SELECT r.id, r.title, r.content, r.rating, r.created_at, b.id, b.isbn, b.title, b.thumbnail_url, u.name
+FROM reviews r
+JOIN books b ON b.id = r.book_id
+JOIN users u ON u.id = r.user_id;
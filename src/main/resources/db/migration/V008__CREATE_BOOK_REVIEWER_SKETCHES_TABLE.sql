@@ -0,0 +1,23 @@
+-- one HyperLogLog per book with 4096 one-byte registers over the md5 hash of the reviewer id
+CREATE TABLE book_reviewer_sketches (
+  book_id BIGINT PRIMARY KEY REFERENCES books ON DELETE CASCADE,
+  registers BYTEA NOT NULL
+);
+
+INSERT INTO book_reviewer_sketches (book_id, registers)
+SELECT b.book_id,
+  decode(string_agg(lpad(to_hex(COALESCE(h.rank, 0)), 2, '0'), '' ORDER BY g.register), 'hex')
+FROM (SELECT DISTINCT book_id FROM reviews WHERE book_id IS NOT NULL) b
+CROSS JOIN generate_series(0, 4095) AS g (register)
+LEFT JOIN (
+  SELECT book_id,
+    CAST(CAST(substring(bits FROM 1 FOR 12) AS BIT(12)) AS INTEGER) AS register,
+    MAX(COALESCE(NULLIF(position(B'1' IN substring(bits FROM 13)), 0), 53)) AS rank
+  FROM (
+    SELECT book_id, CAST('x' || substr(md5(CAST(user_id AS TEXT)), 1, 16) AS BIT(64)) AS bits
+    FROM reviews
+    WHERE book_id IS NOT NULL AND user_id IS NOT NULL
+  ) hashes
+  GROUP BY book_id, register
+) h ON h.book_id = b.book_id AND h.register = g.register
+GROUP BY b.book_id;
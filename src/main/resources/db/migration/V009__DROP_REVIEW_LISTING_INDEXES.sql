@@ -0,0 +1,6 @@
+-- listings read review_view and its V007 indexes, these only cost writes on reviews by now
+DROP INDEX idx_reviews_created_at_id;
+DROP INDEX idx_reviews_book_id_created_at_id;
+
+-- the reviewer sketch recomputation still looks up the reviews of one book
+CREATE INDEX idx_reviews_book_id ON reviews (book_id);
@@ -16,6 +16,7 @@ import com.nimbusds.jose.crypto.RSASSASigner;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import de.rieckpil.courses.book.management.BookRepository;
+import de.rieckpil.courses.book.review.ReviewReadModel;
 import de.rieckpil.courses.book.review.ReviewRepository;
 import de.rieckpil.courses.initializer.RSAKeyGenerator;
 import de.rieckpil.courses.initializer.WireMockInitializer;
@@ -66,6 +67,16 @@ public abstract class AbstractIntegrationTest {
     registry.add("spring.datasource.url", database::getJdbcUrl);
     registry.add("spring.datasource.password", database::getPassword);
     registry.add("spring.datasource.username", database::getUsername);
+    registry.add(
+        "spring.r2dbc.url",
+        () ->
+            "r2dbc:postgresql://%s:%d/%s"
+                .formatted(
+                    database.getHost(),
+                    database.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT),
+                    database.getDatabaseName()));
+    registry.add("spring.r2dbc.password", database::getPassword);
+    registry.add("spring.r2dbc.username", database::getUsername);
     registry.add("sqs.book-synchronization-queue", () -> QUEUE_NAME);
     registry.add("spring.cloud.aws.credentials.secret-key", () -> "foo");
     registry.add("spring.cloud.aws.credentials.access-key", () -> "bar");
@@ -76,6 +87,8 @@ public abstract class AbstractIntegrationTest {
 
   @Autowired private BookRepository bookRepository;
 
+  @Autowired private List<ReviewReadModel> reviewReadModels;
+
   @Autowired private RSAKeyGenerator rsaKeyGenerator;
 
   @Autowired private OAuth2Stubs oAuth2Stubs;
@@ -93,12 +106,14 @@ public abstract class AbstractIntegrationTest {
   void init() {
     this.reviewRepository.deleteAll();
     this.bookRepository.deleteAll();
+    this.reviewReadModels.forEach(ReviewReadModel::rebuild);
   }
 
   @AfterEach
   void cleanUp() {
     this.reviewRepository.deleteAll();
     this.bookRepository.deleteAll();
+    this.reviewReadModels.forEach(ReviewReadModel::rebuild);
   }
 
   protected String getSignedJWT(String username, String email) throws JOSEException {
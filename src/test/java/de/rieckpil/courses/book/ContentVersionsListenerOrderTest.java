@@ -0,0 +1,117 @@
+package de.rieckpil.courses.book;
+
+import de.rieckpil.courses.book.management.Book;
+import de.rieckpil.courses.book.review.Review;
+import de.rieckpil.courses.book.review.ReviewCreatedEvent;
+import de.rieckpil.courses.book.review.ReviewRatingHistogram;
+import de.rieckpil.courses.book.review.ReviewRatingHistograms;
+import de.rieckpil.courses.book.review.ReviewRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+
+@SpringJUnitConfig
+class ContentVersionsListenerOrderTest {
+
+  @Autowired private RecordingContentVersions contentVersions;
+
+  @Autowired private ApplicationEventPublisher eventPublisher;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Test
+  void shouldChangeReviewsETagOnlyAfterReadModelsAppliedTheEvent() {
+    String reviewsETag = contentVersions.getReviewsETag();
+
+    new TransactionTemplate(transactionManager)
+        .executeWithoutResult(
+            status -> eventPublisher.publishEvent(new ReviewCreatedEvent(createReview())));
+
+    assertNotEquals(reviewsETag, contentVersions.getReviewsETag());
+    assertEquals(1, contentVersions.histogramOnVersionChange.total());
+  }
+
+  private Review createReview() {
+    Book book = new Book();
+    book.setIsbn("42");
+
+    Review review = new Review();
+    review.setBook(book);
+    review.setRating(4);
+    return review;
+  }
+
+  @Configuration
+  @EnableTransactionManagement
+  static class TestConfig {
+
+    @Bean
+    ReviewRepository reviewRepository() {
+      return mock(ReviewRepository.class);
+    }
+
+    @Bean
+    ReviewRatingHistograms reviewRatingHistograms(ReviewRepository reviewRepository) {
+      return new ReviewRatingHistograms(reviewRepository);
+    }
+
+    @Bean
+    RecordingContentVersions contentVersions(ReviewRatingHistograms reviewRatingHistograms) {
+      return new RecordingContentVersions(reviewRatingHistograms);
+    }
+
+    @Bean
+    PlatformTransactionManager transactionManager() {
+      return new SynchronizationOnlyTransactionManager();
+    }
+  }
+
+  // captures what a client revalidating with the new ETag would be served
+  static class RecordingContentVersions extends ContentVersions {
+
+    private final ReviewRatingHistograms reviewRatingHistograms;
+
+    private ReviewRatingHistogram histogramOnVersionChange;
+
+    RecordingContentVersions(ReviewRatingHistograms reviewRatingHistograms) {
+      this.reviewRatingHistograms = reviewRatingHistograms;
+    }
+
+    @Override
+    public void onReviewCreated(ReviewCreatedEvent event) {
+      histogramOnVersionChange = reviewRatingHistograms.getHistogram("42");
+      super.onReviewCreated(event);
+    }
+  }
+
+  // there is no resource to commit, it only drives the synchronizations of the listeners
+  static class SynchronizationOnlyTransactionManager extends AbstractPlatformTransactionManager {
+
+    @Override
+    protected Object doGetTransaction() {
+      return new Object();
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {}
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {}
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {}
+  }
+}
@@ -0,0 +1,85 @@
+package de.rieckpil.courses.book;
+
+import de.rieckpil.courses.book.review.Review;
+import de.rieckpil.courses.book.review.ReviewCreatedEvent;
+import de.rieckpil.courses.book.review.ReviewDeletedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentVersionsTest {
+
+  private final ContentVersions cut = new ContentVersions();
+
+  @Test
+  void shouldProduceStrongETags() {
+    assertTrue(cut.getBooksETag().startsWith("\""));
+    assertTrue(cut.getReviewsETag().endsWith("\""));
+    assertNotEquals(cut.getBooksETag(), cut.getReviewsETag());
+  }
+
+  @Test
+  void shouldChangeOnlyReviewsETagWhenReviewsChange() {
+    String booksETag = cut.getBooksETag();
+    String reviewsETag = cut.getReviewsETag();
+
+    cut.onReviewCreated(new ReviewCreatedEvent(new Review()));
+
+    assertEquals(booksETag, cut.getBooksETag());
+    assertNotEquals(reviewsETag, cut.getReviewsETag());
+
+    String afterCreation = cut.getReviewsETag();
+    cut.onReviewDeleted(new ReviewDeletedEvent(new Review()));
+
+    assertNotEquals(afterCreation, cut.getReviewsETag());
+  }
+
+  @Test
+  void shouldChangeOnlyBooksETagWhenBooksChange() {
+    String booksETag = cut.getBooksETag();
+    String reviewsETag = cut.getReviewsETag();
+
+    cut.booksChanged();
+
+    assertNotEquals(booksETag, cut.getBooksETag());
+    assertEquals(reviewsETag, cut.getReviewsETag());
+  }
+
+  @Test
+  void shouldProduceDistinctETagsPerRepresentation() {
+    String jsonETag = cut.getReviewsETag(request(null));
+
+    assertEquals(jsonETag, cut.getReviewsETag(request("application/json")));
+    assertEquals(jsonETag, cut.getReviewsETag(request("*/*")));
+    assertNotEquals(jsonETag, cut.getReviewsETag(request("application/x-jackson-smile")));
+    assertNotEquals(jsonETag, cut.getReviewsETag(request("application/cbor")));
+    assertNotEquals(cut.getBooksETag(request(null)), cut.getBooksETag(request("application/cbor")));
+  }
+
+  @Test
+  void shouldResolveTheRepresentationLikeContentNegotiation() {
+    assertEquals("json", ContentVersions.representation(request(null)));
+    assertEquals("json", ContentVersions.representation(request("text/html, */*;q=0.8")));
+    assertEquals("json", ContentVersions.representation(request("not a media type")));
+    assertEquals(
+        "cbor",
+        ContentVersions.representation(request("application/json;q=0.5, application/cbor")));
+    assertEquals(
+        "x-jackson-smile",
+        ContentVersions.representation(request("application/*, application/x-jackson-smile")));
+  }
+
+  private WebRequest request(String accept) {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    if (accept != null) {
+      request.addHeader(HttpHeaders.ACCEPT, accept);
+    }
+    return new ServletWebRequest(request);
+  }
+}
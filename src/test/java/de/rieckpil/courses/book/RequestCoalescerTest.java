@@ -0,0 +1,135 @@
+package de.rieckpil.courses.book;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestCoalescerTest {
+
+  private static final int CALLERS = 8;
+
+  private RequestCoalescer cut;
+
+  private MeterRegistry meterRegistry;
+
+  private ExecutorService executorService;
+
+  @BeforeEach
+  void setup() {
+    cut = new RequestCoalescer();
+    meterRegistry = new SimpleMeterRegistry();
+    cut.bindTo(meterRegistry);
+    executorService = Executors.newFixedThreadPool(CALLERS);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  void shouldShareOneComputationBetweenConcurrentCallersWithEqualKey() throws Exception {
+    AtomicInteger computations = new AtomicInteger();
+    CountDownLatch computationStarted = new CountDownLatch(1);
+    CountDownLatch releaseComputation = new CountDownLatch(1);
+
+    Future<String> first =
+        executorService.submit(
+            () ->
+                cut.coalesce(
+                    "books.all",
+                    List.of("v1"),
+                    () -> {
+                      computations.incrementAndGet();
+                      computationStarted.countDown();
+                      await(releaseComputation);
+                      return "books";
+                    }));
+
+    assertTrue(computationStarted.await(5, TimeUnit.SECONDS));
+
+    List<Future<String>> followers = new ArrayList<>();
+    for (int i = 1; i < CALLERS; i++) {
+      followers.add(
+          executorService.submit(
+              () ->
+                  cut.coalesce(
+                      "books.all",
+                      List.of("v1"),
+                      () -> {
+                        computations.incrementAndGet();
+                        return "books";
+                      })));
+    }
+
+    while (cut.getCoalescedCount("books.all") < CALLERS - 1) {
+      Thread.onSpinWait();
+    }
+
+    releaseComputation.countDown();
+
+    assertEquals("books", first.get(5, TimeUnit.SECONDS));
+    for (Future<String> follower : followers) {
+      assertEquals("books", follower.get(5, TimeUnit.SECONDS));
+    }
+
+    assertEquals(1, computations.get());
+    assertEquals(
+        CALLERS - 1.0,
+        meterRegistry
+            .get(RequestCoalescer.METRIC_NAME)
+            .tag("operation", "books.all")
+            .functionCounter()
+            .count());
+  }
+
+  @Test
+  void shouldComputeAgainOnceTheFlightHasLanded() {
+    AtomicInteger computations = new AtomicInteger();
+
+    cut.coalesce("books.all", List.of("v1"), computations::incrementAndGet);
+    cut.coalesce("books.all", List.of("v1"), computations::incrementAndGet);
+    cut.coalesce("books.all", List.of("v2"), computations::incrementAndGet);
+
+    assertEquals(3, computations.get());
+    assertEquals(0, cut.getCoalescedCount("books.all"));
+  }
+
+  @Test
+  void shouldPropagateFailureToCaller() {
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            cut.coalesce(
+                "books.all",
+                List.of("v1"),
+                () -> {
+                  throw new IllegalStateException("Database unavailable");
+                }));
+
+    assertEquals("books", cut.coalesce("books.all", List.of("v1"), () -> "books"));
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
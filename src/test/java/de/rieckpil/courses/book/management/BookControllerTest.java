@@ -1,7 +1,14 @@
 package de.rieckpil.courses.book.management;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import de.rieckpil.courses.book.ContentVersions;
+import de.rieckpil.courses.book.RequestCoalescer;
 import de.rieckpil.courses.config.WebSecurityConfig;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,10 +17,17 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -22,11 +36,15 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(BookController.class)
 // see
 // https://github.com/spring-projects/spring-boot/wiki/Spring-Boot-2.7-Release-Notes#migrating-from-websecurityconfigureradapter-to-securityfilterchain
-@Import(WebSecurityConfig.class)
+@Import({WebSecurityConfig.class, ContentVersions.class, RequestCoalescer.class})
 class BookControllerTest {
 
+  private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
   @MockBean private BookManagementService bookManagementService;
 
+  @Autowired private ContentVersions contentVersions;
+
   @Autowired private MockMvc mockMvc;
 
   @Test
@@ -48,6 +66,89 @@ class BookControllerTest {
         .andExpect(status().isNotAcceptable());
   }
 
+  @Test
+  void shouldReturnOnlySelectedBookFields() throws Exception {
+    when(bookManagementService.getAllBooks(EnumSet.of(BookField.TITLE, BookField.ISBN)))
+        .thenReturn(List.of(Map.of("title", "Java 14", "isbn", "42")));
+
+    this.mockMvc
+        .perform(get("/api/books").param("fields", "title,isbn"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].title", is("Java 14")))
+        .andExpect(jsonPath("$[0].isbn", is("42")))
+        .andExpect(jsonPath("$[0].description").doesNotExist());
+
+    verify(bookManagementService, never()).getAllBooks();
+  }
+
+  @Test
+  void shouldRejectUnknownBookFields() throws Exception {
+    this.mockMvc
+        .perform(get("/api/books").param("fields", "id"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void shouldReturnSmileWhenRequested() throws Exception {
+    Book book = createBook(1L, "42", "Java 14", "Mike", "Good book", "IT", 200L, "Oracle", null);
+
+    when(bookManagementService.getAllBooks()).thenReturn(List.of(book));
+
+    byte[] payload =
+        this.mockMvc
+            .perform(get("/api/books").header(HttpHeaders.ACCEPT, SMILE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(SMILE))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    JsonNode books = new ObjectMapper(new SmileFactory()).readTree(payload);
+
+    assertEquals("42", books.get(0).get("isbn").asText());
+    assertEquals("Java 14", books.get(0).get("title").asText());
+  }
+
+  @Test
+  void shouldReturnNotModifiedWithoutLoadingBooksWhenETagMatches() throws Exception {
+    this.mockMvc
+        .perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, jsonBooksETag()))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, jsonBooksETag()))
+        .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+
+    verifyNoInteractions(bookManagementService);
+  }
+
+  @Test
+  void shouldReturnBooksWithETagWhenBooksChanged() throws Exception {
+    String outdatedETag = jsonBooksETag();
+    contentVersions.booksChanged();
+
+    this.mockMvc
+        .perform(get("/api/books").header(HttpHeaders.IF_NONE_MATCH, outdatedETag))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, jsonBooksETag()));
+  }
+
+  @Test
+  void shouldNotReturnNotModifiedForJsonETagWhenSmileIsRequested() throws Exception {
+    String smileETag =
+        this.mockMvc
+            .perform(
+                get("/api/books")
+                    .header(HttpHeaders.ACCEPT, SMILE)
+                    .header(HttpHeaders.IF_NONE_MATCH, jsonBooksETag()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(SMILE))
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    assertNotEquals(jsonBooksETag(), smileETag);
+  }
+
   @Test
   void shouldGetBooksWhenServiceReturnsBooks() throws Exception {
 
@@ -90,6 +191,10 @@ class BookControllerTest {
         .andExpect(jsonPath("$[1].title", is("Java 15")));
   }
 
+  private String jsonBooksETag() {
+    return contentVersions.getBooksETag(new ServletWebRequest(new MockHttpServletRequest()));
+  }
+
   private Book createBook(
       Long id,
       String isbn,
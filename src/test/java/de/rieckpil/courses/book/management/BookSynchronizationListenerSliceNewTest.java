@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
+import de.rieckpil.courses.book.ContentVersions;
 import io.awspring.cloud.sqs.operations.SqsTemplate;
 import io.awspring.cloud.test.sqs.SqsTest;
 import org.junit.jupiter.api.BeforeAll;
@@ -63,6 +64,8 @@ class BookSynchronizationListenerSliceNewTest {
 
   @MockBean private OpenLibraryApiClient openLibraryApiClient;
 
+  @MockBean private ContentVersions contentVersions;
+
   @Test
   void shouldConsumeMessageWhenPayloadIsCorrect() {
     sqsTemplate.send(QUEUE_NAME, new BookSynchronization(ISBN));
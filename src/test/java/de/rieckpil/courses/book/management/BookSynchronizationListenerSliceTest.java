@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
+import de.rieckpil.courses.book.ContentVersions;
 import io.awspring.cloud.autoconfigure.core.AwsAutoConfiguration;
 import io.awspring.cloud.autoconfigure.core.CredentialsProviderAutoConfiguration;
 import io.awspring.cloud.autoconfigure.core.RegionProviderAutoConfiguration;
@@ -83,6 +84,8 @@ class BookSynchronizationListenerSliceTest {
 
   @MockBean private OpenLibraryApiClient openLibraryApiClient;
 
+  @MockBean private ContentVersions contentVersions;
+
   @Test
   void shouldStartSQS() {
     assertNotNull(cut);
@@ -1,5 +1,6 @@
 package de.rieckpil.courses.book.management;
 
+import de.rieckpil.courses.book.ContentVersions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
@@ -17,6 +18,8 @@ class BookSynchronizationListenerTest {
 
   @Mock private OpenLibraryApiClient openLibraryApiClient;
 
+  @Mock private ContentVersions contentVersions;
+
   @InjectMocks private BookSynchronizationListener cut;
 
   @Captor private ArgumentCaptor<Book> bookArgumentCaptor;
@@ -39,6 +42,7 @@ class BookSynchronizationListenerTest {
 
     verifyNoInteractions(openLibraryApiClient);
     verify(bookRepository, times(0)).save(ArgumentMatchers.any());
+    verifyNoInteractions(contentVersions);
   }
 
   @Test
@@ -77,5 +81,7 @@ class BookSynchronizationListenerTest {
     Book methodArgument = bookArgumentCaptor.getValue();
     assertEquals("Java book", methodArgument.getTitle());
     assertEquals(VALID_ISBN, methodArgument.getIsbn());
+    verify(bookRepository, never()).refreshReviewView(ArgumentMatchers.any());
+    verify(contentVersions).booksChanged();
   }
 }
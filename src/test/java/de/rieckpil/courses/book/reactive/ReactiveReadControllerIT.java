@@ -0,0 +1,136 @@
+package de.rieckpil.courses.book.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import de.rieckpil.courses.AbstractIntegrationTest;
+import de.rieckpil.courses.book.management.Book;
+import de.rieckpil.courses.book.management.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReactiveReadControllerIT extends AbstractIntegrationTest {
+
+  private static final String ISBN = "9780596004651";
+
+  @Autowired private WebTestClient webTestClient;
+
+  @Autowired private BookRepository bookRepository;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @BeforeEach
+  void setup() throws JOSEException {
+    Book book = new Book();
+    book.setPublisher("Duke Inc.");
+    book.setIsbn(ISBN);
+    book.setPages(42L);
+    book.setTitle("Joyful testing with Spring Boot");
+    book.setDescription("Writing unit and integration tests for Spring Boot applications");
+    book.setAuthor("rieckpil");
+    book.setThumbnailUrl("https://rieckpil.de/thumbnail.png");
+    book.setGenre("Software Development");
+
+    this.bookRepository.save(book);
+
+    for (int rating = 2; rating <= 4; rating++) {
+      this.webTestClient
+          .post()
+          .uri("/api/books/{isbn}/reviews", ISBN)
+          .header(HttpHeaders.AUTHORIZATION, "Bearer " + getSignedJWT())
+          .contentType(MediaType.APPLICATION_JSON)
+          .bodyValue(
+              """
+              {
+                "reviewTitle" : "Review with rating %d",
+                "reviewContent" : "Good content, great example and most of all up-to-date frameworks and libraries",
+                "rating": %d
+              }
+              """
+                  .formatted(rating, rating))
+          .exchange()
+          .expectStatus()
+          .isCreated();
+    }
+  }
+
+  @Test
+  void shouldReturnSameBooksAsBlockingEndpoint() throws Exception {
+    assertSameBody("/api/books", "/api/reactive/books");
+  }
+
+  @Test
+  void shouldReturnSameReviewPagesAsBlockingEndpoint() throws Exception {
+    String nextCursor =
+        this.webTestClient
+            .get()
+            .uri("/api/reactive/books/reviews?size=2")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .returnResult(String.class)
+            .getResponseHeaders()
+            .getFirst(ReactiveReadController.NEXT_CURSOR_HEADER);
+
+    assertSameBody("/api/books/reviews?size=2", "/api/reactive/books/reviews?size=2");
+    assertSameBody(
+        "/api/books/reviews?size=2&after=" + nextCursor,
+        "/api/reactive/books/reviews?size=2&after=" + nextCursor);
+    assertSameBody(
+        "/api/books/" + ISBN + "/reviews?size=2",
+        "/api/reactive/books/" + ISBN + "/reviews?size=2");
+  }
+
+  @Test
+  void shouldReturnSameReviewStatisticsAsBlockingEndpoint() throws JOSEException {
+    String validJWT = getSignedJWT();
+
+    String blocking =
+        new String(
+            this.webTestClient
+                .get()
+                .uri("/api/books/reviews/statistics")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + validJWT)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .returnResult()
+                .getResponseBody());
+
+    this.webTestClient
+        .get()
+        .uri("/api/reactive/books/reviews/statistics")
+        .header(HttpHeaders.AUTHORIZATION, "Bearer " + validJWT)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .json(blocking)
+        .jsonPath("$[0].ratings")
+        .isEqualTo(3);
+  }
+
+  private void assertSameBody(String blockingUri, String reactiveUri) throws Exception {
+    // compared as trees, as the order of books and reviews matters
+    assertEquals(
+        objectMapper.readTree(fetch(blockingUri)), objectMapper.readTree(fetch(reactiveUri)));
+  }
+
+  private byte[] fetch(String uri) {
+    return this.webTestClient
+        .get()
+        .uri(uri)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .returnResult()
+        .getResponseBody();
+  }
+}
@@ -0,0 +1,170 @@
+package de.rieckpil.courses.book.reactive;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.rieckpil.courses.AbstractIntegrationTest;
+import de.rieckpil.courses.book.review.ReviewCursor;
+import de.rieckpil.courses.book.review.ReviewViewRebuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// run with ./mvnw verify -Ploadtests, compares the blocking and the reactive review listing
+class ReactiveReadPathLT extends AbstractIntegrationTest {
+
+  private static final int REVIEWS = 20_000;
+  private static final int REQUESTS = 5_000;
+  private static final int CONCURRENCY = 500;
+  private static final int PAGE_SIZE = 20;
+
+  @LocalServerPort private int port;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private ReviewViewRebuilder reviewViewRebuilder;
+
+  private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+  private final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+
+  private LocalDateTime newestReview;
+
+  @BeforeEach
+  void setup() {
+    Long userId =
+        jdbcTemplate.queryForObject(
+            "INSERT INTO users (name, email, created_at) "
+                + "VALUES ('duke', 'duke@spring.io', now()) RETURNING id",
+            Long.class);
+    Long bookId =
+        jdbcTemplate.queryForObject(
+            "INSERT INTO books (title, isbn, author, genre, thumbnail_url, description, "
+                + "publisher, pages) VALUES ('Java 17', '1234567891234', 'duke', 'Software', "
+                + "'http://localhost:8080/image.png', 'New features of Java 17', 'Duke Inc.', 42) "
+                + "RETURNING id",
+            Long.class);
+
+    newestReview = LocalDateTime.now();
+
+    jdbcTemplate.update(
+        "INSERT INTO reviews (title, content, rating, created_at, book_id, user_id) "
+            + "SELECT 'Review ' || i, repeat('Content ', 50), i % 6, "
+            + "? - i * INTERVAL '1 second', ?, ? FROM generate_series(1, ?) i",
+        newestReview, bookId, userId, REVIEWS);
+
+    reviewViewRebuilder.rebuild();
+  }
+
+  @AfterEach
+  void tearDown() {
+    // faster than the entity-by-entity deletes of the base class, review_view rows cascade
+    jdbcTemplate.update("DELETE FROM reviews");
+    jdbcTemplate.update("DELETE FROM users");
+  }
+
+  @Test
+  void shouldReportThreadsMemoryAndLatencyOfBlockingAndReactiveReadPath() {
+    WebClient webClient = WebClient.create("http://localhost:" + port);
+
+    // warm up both paths before measuring
+    run(webClient, "/api/books/reviews", REQUESTS / 10);
+    run(webClient, "/api/reactive/books/reviews", REQUESTS / 10);
+
+    Result blocking = run(webClient, "/api/books/reviews", REQUESTS);
+    Result reactive = run(webClient, "/api/reactive/books/reviews", REQUESTS);
+
+    System.out.printf(
+        "%-9s %8s %12s %10s %10s %12s%n",
+        "path", "threads", "heap (MiB)", "p50 (ms)", "p99 (ms)", "req/s");
+    print("blocking", blocking);
+    print("reactive", reactive);
+
+    assertEquals(REQUESTS, blocking.latenciesNanos().length);
+    assertEquals(REQUESTS, reactive.latenciesNanos().length);
+  }
+
+  private Result run(WebClient webClient, String path, int requests) {
+    System.gc();
+    threadMXBean.resetPeakThreadCount();
+    AtomicLong peakHeap = new AtomicLong(memoryMXBean.getHeapMemoryUsage().getUsed());
+
+    ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+    sampler.scheduleAtFixedRate(
+        () -> peakHeap.accumulateAndGet(memoryMXBean.getHeapMemoryUsage().getUsed(), Math::max),
+        0,
+        10,
+        TimeUnit.MILLISECONDS);
+
+    long start = System.nanoTime();
+
+    try {
+      long[] latencies =
+          Flux.range(0, requests)
+              .flatMap(request -> fetchPage(webClient, path, request), CONCURRENCY)
+              .collectList()
+              .block(Duration.ofMinutes(5))
+              .stream()
+              .mapToLong(Long::longValue)
+              .sorted()
+              .toArray();
+
+      return new Result(
+          latencies, threadMXBean.getPeakThreadCount(), peakHeap.get(), System.nanoTime() - start);
+    } finally {
+      sampler.shutdownNow();
+    }
+  }
+
+  // a distinct cursor per request keeps caches and request coalescing out of the comparison
+  private Mono<Long> fetchPage(WebClient webClient, String path, int request) {
+    String cursor =
+        new ReviewCursor(newestReview.minusSeconds(request % (REVIEWS - PAGE_SIZE)), Long.MAX_VALUE)
+            .encode();
+
+    long start = System.nanoTime();
+
+    return webClient
+        .get()
+        .uri(
+            uriBuilder ->
+                uriBuilder
+                    .path(path)
+                    .queryParam("size", PAGE_SIZE)
+                    .queryParam("after", cursor)
+                    .build())
+        .retrieve()
+        .toBodilessEntity()
+        .map(response -> System.nanoTime() - start);
+  }
+
+  private static void print(String path, Result result) {
+    long[] latencies = result.latenciesNanos();
+
+    System.out.printf(
+        "%-9s %8d %12.1f %10.2f %10.2f %12.0f%n",
+        path,
+        result.peakThreads(),
+        result.peakHeapBytes() / (1024.0 * 1024.0),
+        latencies[latencies.length / 2] / 1_000_000.0,
+        latencies[(int) Math.ceil(latencies.length * 0.99) - 1] / 1_000_000.0,
+        latencies.length / (result.durationNanos() / 1_000_000_000.0));
+  }
+
+  private record Result(
+      long[] latenciesNanos, int peakThreads, long peakHeapBytes, long durationNanos) {}
+}
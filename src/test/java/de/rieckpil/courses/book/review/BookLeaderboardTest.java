@@ -0,0 +1,103 @@
+package de.rieckpil.courses.book.review;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import de.rieckpil.courses.book.management.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookLeaderboardTest {
+
+  @Mock private ReviewRepository reviewRepository;
+
+  private BookLeaderboard cut;
+
+  @BeforeEach
+  void setup() {
+    cut = new BookLeaderboard(reviewRepository, 2);
+
+    when(reviewRepository.getReviewRatingTotals())
+        .thenReturn(
+            List.of(
+                new Totals(1L, "single", null, null, 1L, 5L),
+                new Totals(2L, "popular", null, null, 10L, 45L),
+                new Totals(3L, "weak", null, null, 4L, 8L)));
+
+    cut.rebuild();
+  }
+
+  @Test
+  void shouldRankBooksByBayesianAverage() {
+    List<BookRanking> books = cut.getPage(10, null).books();
+
+    assertEquals(List.of("popular", "single", "weak"), isbns(books));
+    assertEquals(new BigDecimal("5.00"), books.get(1).avg());
+    assertEquals((2 * 58.0 / 15 + 45) / 12, books.get(0).score(), 1e-9);
+  }
+
+  @Test
+  void shouldPageThroughLeaderboardWithCursor() {
+    BookLeaderboardPage firstPage = cut.getPage(2, null);
+
+    assertEquals(List.of("popular", "single"), isbns(firstPage.books()));
+    assertNotNull(firstPage.nextCursor());
+
+    BookLeaderboardPage secondPage = cut.getPage(2, firstPage.nextCursor());
+
+    assertEquals(List.of("weak"), isbns(secondPage.books()));
+    assertNull(secondPage.nextCursor());
+  }
+
+  @Test
+  void shouldRepositionBookWhenReviewIsCreated() {
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview("single", 5)));
+
+    assertEquals(List.of("single", "popular", "weak"), isbns(cut.getPage(10, null).books()));
+  }
+
+  @Test
+  void shouldDropBookWhenLastReviewIsDeleted() {
+    cut.onReviewDeleted(new ReviewDeletedEvent(createReview("single", 5)));
+
+    assertEquals(List.of("popular", "weak"), isbns(cut.getPage(10, null).books()));
+  }
+
+  @Test
+  void shouldRejectInvalidCursor() {
+    assertThrows(InvalidLeaderboardCursorException.class, () -> cut.getPage(10, "invalid"));
+  }
+
+  private Review createReview(String isbn, int rating) {
+    Book book = new Book();
+    book.setIsbn(isbn);
+
+    Review review = new Review();
+    review.setRating(rating);
+    review.setBook(book);
+    return review;
+  }
+
+  private List<String> isbns(List<BookRanking> books) {
+    return books.stream().map(BookRanking::isbn).toList();
+  }
+
+  private record Totals(
+      Long getBookId,
+      String getIsbn,
+      String getAuthor,
+      String getGenre,
+      Long getRatings,
+      Long getRatingSum)
+      implements ReviewRatingTotals {}
+}
@@ -0,0 +1,98 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import de.rieckpil.courses.book.management.Book;
+import de.rieckpil.courses.book.management.BookNotFoundException;
+import de.rieckpil.courses.book.management.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookReviewFirstPagesTest {
+
+  private static final String ISBN = "42";
+
+  @Mock private ReviewRepository reviewRepository;
+
+  @Mock private BookRepository bookRepository;
+
+  private BookReviewFirstPages cut;
+
+  @BeforeEach
+  void setup() {
+    cut = new BookReviewFirstPages(reviewRepository, bookRepository, 2, 100);
+  }
+
+  @Test
+  void shouldLoadOneReviewMoreThanPageSizeOnlyOnce() {
+    when(reviewRepository.findLatestSummariesByBookIsbn(ISBN, PageRequest.of(0, 3)))
+        .thenReturn(List.of(createSummary(3L), createSummary(2L), createSummary(1L)));
+
+    assertEquals(3, cut.getFirstPage(ISBN).size());
+    assertEquals(3, cut.getFirstPage(ISBN).size());
+
+    verify(reviewRepository, times(1)).findLatestSummariesByBookIsbn(ISBN, PageRequest.of(0, 3));
+  }
+
+  @Test
+  void shouldReloadFirstPageAfterReviewForBookWasCreated() {
+    when(reviewRepository.findLatestSummariesByBookIsbn(ISBN, PageRequest.of(0, 3)))
+        .thenReturn(List.of(createSummary(1L)))
+        .thenReturn(List.of(createSummary(2L), createSummary(1L)));
+
+    cut.getFirstPage(ISBN);
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview()));
+
+    assertEquals(2, cut.getFirstPage(ISBN).size());
+  }
+
+  @Test
+  void shouldReloadFirstPageAfterReviewForBookWasDeleted() {
+    when(reviewRepository.findLatestSummariesByBookIsbn(ISBN, PageRequest.of(0, 3)))
+        .thenReturn(List.of(createSummary(1L)))
+        .thenReturn(List.of());
+    when(bookRepository.findByIsbn(ISBN)).thenReturn(new Book());
+
+    cut.getFirstPage(ISBN);
+    cut.onReviewDeleted(new ReviewDeletedEvent(createReview()));
+
+    assertEquals(0, cut.getFirstPage(ISBN).size());
+  }
+
+  @Test
+  void shouldRejectUnknownBookWithoutCachingIt() {
+    when(reviewRepository.findLatestSummariesByBookIsbn(ISBN, PageRequest.of(0, 3)))
+        .thenReturn(List.of());
+
+    assertThrows(BookNotFoundException.class, () -> cut.getFirstPage(ISBN));
+    assertThrows(BookNotFoundException.class, () -> cut.getFirstPage(ISBN));
+
+    verify(bookRepository, times(2)).findByIsbn(ISBN);
+  }
+
+  private Review createReview() {
+    Book book = new Book();
+    book.setIsbn(ISBN);
+
+    Review review = new Review();
+    review.setBook(book);
+    return review;
+  }
+
+  private ReviewSummary createSummary(Long id) {
+    return new ReviewSummary(
+        id, "Title", "Content", 4, LocalDateTime.now(), ISBN, "Java 14", null, "duke");
+  }
+}
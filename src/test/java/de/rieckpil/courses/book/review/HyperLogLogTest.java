@@ -0,0 +1,75 @@
+package de.rieckpil.courses.book.review;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+  @Test
+  void shouldEstimateEmptySketchAsZero() {
+    assertEquals(0, new HyperLogLog().estimate());
+  }
+
+  @Test
+  void shouldIgnoreDuplicates() {
+    HyperLogLog cut = new HyperLogLog();
+
+    for (int i = 0; i < 10; i++) {
+      cut.add(HyperLogLog.hash(42L));
+    }
+
+    assertEquals(1, cut.estimate());
+  }
+
+  @Test
+  void shouldEstimateDistinctCountWithinFewPercent() {
+    HyperLogLog cut = new HyperLogLog();
+
+    for (long id = 1; id <= 100_000; id++) {
+      cut.add(HyperLogLog.hash(id));
+    }
+
+    assertTrue(Math.abs(cut.estimate() - 100_000) < 5_000, "estimate was " + cut.estimate());
+  }
+
+  @Test
+  void shouldCountOverlappingReviewersOnceWhenMerged() {
+    HyperLogLog first = new HyperLogLog();
+    HyperLogLog second = new HyperLogLog();
+
+    for (long id = 1; id <= 1_000; id++) {
+      first.add(HyperLogLog.hash(id));
+      second.add(HyperLogLog.hash(id + 500));
+    }
+
+    first.merge(second);
+
+    assertTrue(Math.abs(first.estimate() - 1_500) < 75, "estimate was " + first.estimate());
+  }
+
+  @Test
+  void shouldRestoreSketchFromRegisters() {
+    HyperLogLog sketch = new HyperLogLog();
+    sketch.add(HyperLogLog.hash(1L));
+    sketch.add(HyperLogLog.hash(2L));
+
+    HyperLogLog restored = new HyperLogLog(sketch.toByteArray());
+
+    assertArrayEquals(sketch.toByteArray(), restored.toByteArray());
+    assertEquals(2, restored.estimate());
+    assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(new byte[16]));
+  }
+
+  @Test
+  void shouldSplitHashIntoRegisterAndRank() {
+    assertEquals(0, HyperLogLog.register(0L));
+    assertEquals(HyperLogLog.REGISTERS - 1, HyperLogLog.register(-1L));
+    assertEquals(1, HyperLogLog.rank(-1L));
+    assertEquals(53, HyperLogLog.rank(0L));
+    assertEquals(52, HyperLogLog.rank(1L));
+  }
+}
@@ -0,0 +1,107 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.rieckpil.courses.config.WebConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// run with ./mvnw verify -Ploadtests, compares payload size and codec time of Smile and CBOR
+// against JSON
+@JsonTest
+@Import(WebConfig.class)
+class ReviewBinaryFormatLT {
+
+  private static final int[] PAGE_SIZES = {20, 100, 1_000};
+  private static final int ITERATIONS = 500;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @Autowired private MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter;
+
+  @Autowired private MappingJackson2CborHttpMessageConverter cborHttpMessageConverter;
+
+  @Test
+  void shouldReportPayloadSizeAndCodecTimeAgainstJson() throws Exception {
+    System.out.printf(
+        "%-6s %6s %10s %12s %12s%n", "format", "page", "bytes", "encode (us)", "decode (us)");
+
+    for (int pageSize : PAGE_SIZES) {
+      List<ReviewSummary> page = createPage(pageSize);
+
+      Result json = measure(objectMapper, page);
+      Result smile = measure(smileHttpMessageConverter.getObjectMapper(), page);
+      Result cbor = measure(cborHttpMessageConverter.getObjectMapper(), page);
+
+      print("json", pageSize, json);
+      print("smile", pageSize, smile);
+      print("cbor", pageSize, cbor);
+
+      assertTrue(smile.bytes() < json.bytes());
+      assertTrue(cbor.bytes() < json.bytes());
+    }
+  }
+
+  private Result measure(ObjectMapper mapper, List<ReviewSummary> page) throws Exception {
+    byte[] payload = mapper.writeValueAsBytes(page);
+
+    // warm up so that the measurement excludes class loading and JIT compilation
+    for (int i = 0; i < ITERATIONS; i++) {
+      mapper.readTree(mapper.writeValueAsBytes(page));
+    }
+
+    long start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      mapper.writeValueAsBytes(page);
+    }
+    long encodeNanos = (System.nanoTime() - start) / ITERATIONS;
+
+    start = System.nanoTime();
+    for (int i = 0; i < ITERATIONS; i++) {
+      mapper.readTree(payload);
+    }
+    long decodeNanos = (System.nanoTime() - start) / ITERATIONS;
+
+    return new Result(payload.length, encodeNanos, decodeNanos);
+  }
+
+  private void print(String format, int pageSize, Result result) {
+    System.out.printf(
+        "%-6s %6d %10d %12.1f %12.1f%n",
+        format,
+        pageSize,
+        result.bytes(),
+        result.encodeNanos() / 1_000.0,
+        result.decodeNanos() / 1_000.0);
+  }
+
+  private List<ReviewSummary> createPage(int size) {
+    List<ReviewSummary> page = new ArrayList<>();
+    for (long id = 0; id < size; id++) {
+      page.add(
+          new ReviewSummary(
+              id,
+              "Great book with lots of tips & tricks",
+              "I can really recommend reading this book. It includes up-to-date library versions "
+                  + "and real-world examples for testing Spring Boot applications.",
+              (int) (id % 6),
+              LocalDateTime.of(2020, 8, 11, 7, 45).minusMinutes(id),
+              "9780596004651",
+              "Joyful testing with Spring Boot",
+              "https://rieckpil.de/wp-content/uploads/2020/08/tsbam_introduction_thumbnail.png",
+              "duke" + id));
+    }
+    return page;
+  }
+
+  private record Result(int bytes, long encodeNanos, long decodeNanos) {}
+}
@@ -0,0 +1,72 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.rieckpil.courses.config.WebConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@JsonTest
+@Import(WebConfig.class)
+class ReviewBinaryFormatTest {
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @Autowired private MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter;
+
+  @Autowired private MappingJackson2CborHttpMessageConverter cborHttpMessageConverter;
+
+  @Test
+  void shouldEncodeReviewsIdenticallyInAllFormats() throws Exception {
+    List<ReviewSummary> page = createPage(20);
+    ObjectMapper smileMapper = smileHttpMessageConverter.getObjectMapper();
+    ObjectMapper cborMapper = cborHttpMessageConverter.getObjectMapper();
+
+    JsonNode json = objectMapper.readTree(objectMapper.writeValueAsBytes(page));
+
+    assertEquals(json, smileMapper.readTree(smileMapper.writeValueAsBytes(page)));
+    assertEquals(json, cborMapper.readTree(cborMapper.writeValueAsBytes(page)));
+  }
+
+  @Test
+  void shouldEncodeReviewsSmallerThanJson() throws Exception {
+    List<ReviewSummary> page = createPage(100);
+    ObjectMapper smileMapper = smileHttpMessageConverter.getObjectMapper();
+    ObjectMapper cborMapper = cborHttpMessageConverter.getObjectMapper();
+
+    int jsonBytes = objectMapper.writeValueAsBytes(page).length;
+
+    assertTrue(smileMapper.writeValueAsBytes(page).length < jsonBytes);
+    assertTrue(cborMapper.writeValueAsBytes(page).length < jsonBytes);
+  }
+
+  private List<ReviewSummary> createPage(int size) {
+    List<ReviewSummary> page = new ArrayList<>();
+    for (long id = 0; id < size; id++) {
+      page.add(
+          new ReviewSummary(
+              id,
+              "Great book with lots of tips & tricks",
+              "I can really recommend reading this book. It includes up-to-date library versions "
+                  + "and real-world examples for testing Spring Boot applications.",
+              (int) (id % 6),
+              LocalDateTime.of(2020, 8, 11, 7, 45).minusMinutes(id),
+              "9780596004651",
+              "Joyful testing with Spring Boot",
+              "https://rieckpil.de/wp-content/uploads/2020/08/tsbam_introduction_thumbnail.png",
+              "duke" + id));
+    }
+    return page;
+  }
+}
@@ -1,20 +1,28 @@
 package de.rieckpil.courses.book.review;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import de.rieckpil.courses.book.ContentVersions;
+import de.rieckpil.courses.book.RequestCoalescer;
 import de.rieckpil.courses.config.WebSecurityConfig;
 import org.hamcrest.Matchers;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
@@ -24,39 +32,146 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(ReviewController.class)
 // see
 // https://github.com/spring-projects/spring-boot/wiki/Spring-Boot-2.7-Release-Notes#migrating-from-websecurityconfigureradapter-to-securityfilterchain
-@Import(WebSecurityConfig.class)
+@Import({
+  WebSecurityConfig.class,
+  ContentVersions.class,
+  RequestCoalescer.class,
+  ReviewResponseCache.class
+})
 class ReviewControllerTest {
 
   @MockBean private ReviewService reviewService;
 
+  @Autowired private ContentVersions contentVersions;
+
   @Autowired private MockMvc mockMvc;
 
-  private ObjectMapper objectMapper;
+  @Test
+  void shouldReturnTwentyReviewsWithoutAnyOrderWhenNoParametersAreSpecified() throws Exception {
+
+    ReviewSummary review =
+        new ReviewSummary(
+            1L,
+            "Great Java Book!",
+            "I really like this book!",
+            4,
+            LocalDateTime.of(2020, 8, 11, 7, 45),
+            "42",
+            "Java 14",
+            "http://localhost:8080/image.png",
+            "duke");
+
+    when(reviewService.getAllReviews(20, "none", null))
+        .thenReturn(new ReviewPage(List.of(review), null));
 
-  @BeforeEach
-  void beforeEach() {
-    this.objectMapper = new ObjectMapper();
+    this.mockMvc
+        .perform(get("/api/books/reviews"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.size()", Matchers.is(1)))
+        .andExpect(jsonPath("$[0].reviewId", Matchers.is(1)))
+        .andExpect(jsonPath("$[0].reviewTitle", Matchers.is("Great Java Book!")))
+        .andExpect(jsonPath("$[0].bookIsbn", Matchers.is("42")))
+        .andExpect(jsonPath("$[0].submittedBy", Matchers.is("duke")))
+        .andExpect(jsonPath("$[0].submittedAt", Matchers.is(1597124700000L)))
+        .andExpect(header().doesNotExist("X-Next-Cursor"));
   }
 
   @Test
-  void shouldReturnTwentyReviewsWithoutAnyOrderWhenNoParametersAreSpecified() throws Exception {
+  void shouldReturnNextCursorHeaderWhenMoreReviewsAreAvailable() throws Exception {
 
-    ArrayNode result = objectMapper.createArrayNode();
+    when(reviewService.getAllReviews(5, "none", "b2Zmc2V0"))
+        .thenReturn(new ReviewPage(List.of(), "bmV4dA"));
 
-    ObjectNode statistic = objectMapper.createObjectNode();
-    statistic.put("bookId", 1);
-    statistic.put("isbn", "42");
-    statistic.put("avg", 89.3);
-    statistic.put("ratings", 2);
+    this.mockMvc
+        .perform(get("/api/books/reviews").param("size", "5").param("after", "b2Zmc2V0"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("X-Next-Cursor", "bmV4dA"));
+  }
 
-    result.add(statistic);
+  @Test
+  void shouldReturnReviewsOfSingleBookWithoutAuthentication() throws Exception {
 
-    when(reviewService.getAllReviews(20, "none")).thenReturn(result);
+    when(reviewService.getBookReviews("42", 5, null))
+        .thenReturn(new ReviewPage(List.of(), "bmV4dA"));
 
     this.mockMvc
-        .perform(get("/api/books/reviews"))
+        .perform(get("/api/books/{isbn}/reviews", 42).param("size", "5"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.size()", Matchers.is(0)))
+        .andExpect(header().string("X-Next-Cursor", "bmV4dA"));
+  }
+
+  @Test
+  void shouldReturnCborWhenRequested() throws Exception {
+
+    when(reviewService.getAllReviews(20, "none", null)).thenReturn(new ReviewPage(List.of(), null));
+
+    this.mockMvc
+        .perform(get("/api/books/reviews").accept(MediaType.APPLICATION_CBOR))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+  }
+
+  @Test
+  void shouldReturnOnlySelectedFields() throws Exception {
+
+    ReviewSummary review =
+        new ReviewSummary(
+            1L, "Great Java Book!", null, 4, LocalDateTime.now(), null, null, null, null);
+
+    when(reviewService.getAllReviews(
+            20, "none", null, EnumSet.of(ReviewField.REVIEW_TITLE, ReviewField.RATING)))
+        .thenReturn(new ReviewPage(List.of(review), null));
+
+    this.mockMvc
+        .perform(get("/api/books/reviews").param("fields", "reviewTitle,rating"))
         .andExpect(status().isOk())
-        .andExpect(jsonPath("$.size()", Matchers.is(1)));
+        .andExpect(jsonPath("$[0].reviewTitle", Matchers.is("Great Java Book!")))
+        .andExpect(jsonPath("$[0].rating", Matchers.is(4)))
+        .andExpect(jsonPath("$[0].reviewContent").doesNotExist())
+        .andExpect(jsonPath("$[0].reviewId").doesNotExist());
+  }
+
+  @Test
+  void shouldRejectUnknownFields() throws Exception {
+    this.mockMvc
+        .perform(get("/api/books/reviews").param("fields", "reviewTitle,password"))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(reviewService);
+  }
+
+  @Test
+  void shouldRejectMalformedCursor() throws Exception {
+
+    when(reviewService.getAllReviews(20, "none", "malformed"))
+        .thenThrow(new InvalidReviewCursorException("malformed"));
+
+    this.mockMvc
+        .perform(get("/api/books/reviews").param("after", "malformed"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void shouldReturnNotModifiedWithoutLoadingReviewsWhenETagMatches() throws Exception {
+    this.mockMvc
+        .perform(get("/api/books/reviews").header(HttpHeaders.IF_NONE_MATCH, jsonReviewsETag()))
+        .andExpect(status().isNotModified());
+
+    verifyNoInteractions(reviewService);
+  }
+
+  @Test
+  void shouldReturnNotModifiedWithoutLoadingReviewStatisticsWhenETagMatches() throws Exception {
+    this.mockMvc
+        .perform(
+            get("/api/books/reviews/statistics")
+                .header(HttpHeaders.IF_NONE_MATCH, jsonReviewsETag())
+                .with(jwt()))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, jsonReviewsETag()));
+
+    verifyNoInteractions(reviewService);
   }
 
   @Test
@@ -140,6 +255,43 @@ class ReviewControllerTest {
         .andDo(MockMvcResultHandlers.print());
   }
 
+  @Test
+  void shouldRejectNewBookReviewWithRatingAboveFive() throws Exception {
+
+    String requestBody =
+        """
+        {
+          "reviewTitle": "Great Java Book!",
+          "reviewContent": "I really like this book!",
+          "rating": 6
+        }
+      """;
+
+    this.mockMvc
+        .perform(
+            post("/api/books/{isbn}/reviews", 42)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestBody)
+                .with(jwt()))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(reviewService);
+  }
+
+  @Test
+  void shouldReturnRatingHistogramForBook() throws Exception {
+    when(reviewService.getRatingHistogram("42"))
+        .thenReturn(new ReviewRatingHistogram("42", new long[] {0, 1, 0, 2, 0, 4}, 7));
+
+    this.mockMvc
+        .perform(get("/api/books/{isbn}/reviews/histogram", 42).with(jwt()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.isbn", Matchers.is("42")))
+        .andExpect(jsonPath("$.ratings.size()", Matchers.is(6)))
+        .andExpect(jsonPath("$.ratings[5]", Matchers.is(4)))
+        .andExpect(jsonPath("$.total", Matchers.is(7)));
+  }
+
   @Test
   void shouldNotAllowDeletingReviewsWhenUserIsAuthenticatedWithoutModeratorRole() throws Exception {
     this.mockMvc
@@ -161,4 +313,98 @@ class ReviewControllerTest {
 
     verify(reviewService).deleteReview("42", 3L);
   }
+
+  @Test
+  void shouldServeRepeatedReviewLookupsFromCache() throws Exception {
+    ReviewSummary review =
+        new ReviewSummary(
+            7L,
+            "Great Java Book!",
+            "I really like this book!",
+            4,
+            LocalDateTime.of(2020, 8, 11, 7, 45),
+            "42",
+            "Java 14",
+            "http://localhost:8080/image.png",
+            "duke");
+
+    when(reviewService.getReviewById("42", 7L)).thenReturn(review);
+
+    for (int i = 0; i < 3; i++) {
+      this.mockMvc
+          .perform(get("/api/books/{isbn}/reviews/{reviewId}", 42, 7).with(jwt()))
+          .andExpect(status().isOk())
+          .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+          .andExpect(jsonPath("$.reviewId", Matchers.is(7)))
+          .andExpect(jsonPath("$.submittedBy", Matchers.is("duke")));
+    }
+
+    verify(reviewService, times(1)).getReviewById("42", 7L);
+  }
+
+  @Test
+  void shouldReturnNotFoundWhenReviewDoesNotExist() throws Exception {
+    when(reviewService.getReviewById("42", 8L)).thenThrow(new ReviewNotFoundException());
+
+    this.mockMvc
+        .perform(get("/api/books/{isbn}/reviews/{reviewId}", 42, 8).with(jwt()))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  void shouldResolveReviewBatchInRequestOrderWithNotFoundMarkers() throws Exception {
+    ReviewSummary review =
+        new ReviewSummary(
+            7L,
+            "Great Java Book!",
+            "I really like this book!",
+            4,
+            LocalDateTime.of(2020, 8, 11, 7, 45),
+            "42",
+            "Java 14",
+            "http://localhost:8080/image.png",
+            "duke");
+
+    when(reviewService.getReviewsByIds(anyCollection()))
+        .thenReturn(Map.of(new ReviewReference("42", 7L), review));
+
+    this.mockMvc
+        .perform(
+            post("/api/books/reviews/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    """
+                    {"reviews": [{"isbn": "42", "reviewId": 9}, {"isbn": "42", "reviewId": 7}]}
+                    """)
+                .with(jwt()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.size()", Matchers.is(2)))
+        .andExpect(jsonPath("$[0].reviewId", Matchers.is(9)))
+        .andExpect(jsonPath("$[0].status", Matchers.is("NOT_FOUND")))
+        .andExpect(jsonPath("$[0].review").doesNotExist())
+        .andExpect(jsonPath("$[1].status", Matchers.is("FOUND")))
+        .andExpect(jsonPath("$[1].review.reviewTitle", Matchers.is("Great Java Book!")));
+  }
+
+  @Test
+  void shouldRejectReviewBatchExceedingTheMaximumSize() throws Exception {
+    String reviews =
+        IntStream.rangeClosed(1, ReviewBatchRequest.MAX_REVIEWS + 1)
+            .mapToObj(id -> "{\"isbn\": \"42\", \"reviewId\": " + id + "}")
+            .collect(Collectors.joining(","));
+
+    this.mockMvc
+        .perform(
+            post("/api/books/reviews/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reviews\": [" + reviews + "]}")
+                .with(jwt()))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(reviewService);
+  }
+
+  private String jsonReviewsETag() {
+    return contentVersions.getReviewsETag(new ServletWebRequest(new MockHttpServletRequest()));
+  }
 }
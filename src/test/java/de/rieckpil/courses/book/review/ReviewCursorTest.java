@@ -0,0 +1,31 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReviewCursorTest {
+
+  @Test
+  void shouldDecodeEncodedCursor() {
+    ReviewCursor cursor =
+        new ReviewCursor(LocalDateTime.of(2020, 8, 11, 7, 45, 0, 500_123_000), 42L);
+
+    ReviewCursor result = ReviewCursor.decode(cursor.encode());
+
+    assertEquals(cursor, result);
+  }
+
+  @Test
+  void shouldRejectCursorThatIsNotBase64() {
+    assertThrows(InvalidReviewCursorException.class, () -> ReviewCursor.decode("%%%"));
+  }
+
+  @Test
+  void shouldRejectCursorWithoutSeparator() {
+    assertThrows(InvalidReviewCursorException.class, () -> ReviewCursor.decode("ZHVrZQ"));
+  }
+}
@@ -0,0 +1,55 @@
+package de.rieckpil.courses.book.review;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import de.rieckpil.courses.config.WebSecurityConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReviewExportController.class)
+@Import(WebSecurityConfig.class)
+class ReviewExportControllerTest {
+
+  @MockBean private ReviewService reviewService;
+
+  @Autowired private MockMvc mockMvc;
+
+  @Test
+  void shouldRejectExportWhenUserIsUnauthenticated() throws Exception {
+    this.mockMvc.perform(get("/api/books/reviews/export")).andExpect(status().isUnauthorized());
+
+    verifyNoInteractions(reviewService);
+  }
+
+  @Test
+  void shouldStreamReviewsAsNewlineDelimitedJson() throws Exception {
+    doAnswer(
+            invocation -> {
+              OutputStream outputStream = invocation.getArgument(0);
+              outputStream.write(
+                  "{\"reviewId\":1}\n{\"reviewId\":2}\n".getBytes(StandardCharsets.UTF_8));
+              return null;
+            })
+        .when(reviewService)
+        .exportReviews(any(OutputStream.class));
+
+    this.mockMvc
+        .perform(get("/api/books/reviews/export").with(jwt()))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+        .andExpect(content().string("{\"reviewId\":1}\n{\"reviewId\":2}\n"));
+  }
+}
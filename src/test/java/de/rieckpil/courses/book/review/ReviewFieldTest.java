@@ -0,0 +1,50 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.rieckpil.courses.book.InvalidFieldSelectionException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReviewFieldTest {
+
+  @Test
+  void shouldParseJsonPropertyNames() {
+    Set<ReviewField> result = ReviewField.parse(List.of("submittedAt", " reviewTitle"));
+
+    assertEquals(Set.of(ReviewField.SUBMITTED_AT, ReviewField.REVIEW_TITLE), result);
+  }
+
+  @Test
+  void shouldRejectUnknownAndEmptySelections() {
+    assertThrows(InvalidFieldSelectionException.class, () -> ReviewField.parse(List.of("id")));
+    assertThrows(InvalidFieldSelectionException.class, () -> ReviewField.parse(List.of()));
+  }
+
+  @Test
+  void shouldProjectSelectedFieldsInRepresentationOrder() {
+    ReviewSummary review =
+        new ReviewSummary(
+            1L,
+            "Title",
+            "Content",
+            4,
+            LocalDateTime.of(2020, 8, 11, 7, 45),
+            "42",
+            "Java 14",
+            null,
+            "duke");
+
+    Map<String, Object> result =
+        ReviewField.project(
+            review, ReviewField.parse(List.of("submittedAt", "rating", "reviewTitle")));
+
+    assertEquals(List.of("reviewTitle", "rating", "submittedAt"), List.copyOf(result.keySet()));
+    assertEquals(1597124700000L, result.get("submittedAt"));
+  }
+}
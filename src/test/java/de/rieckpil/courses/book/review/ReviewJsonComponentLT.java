@@ -0,0 +1,101 @@
+package de.rieckpil.courses.book.review;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// run with ./mvnw verify -Ploadtests, compares the allocations of the former ArrayNode tree
+// mapping with the JsonGenerator based serializers
+@JsonTest
+class ReviewJsonComponentLT {
+
+  private static final int PAGE_SIZE = 20;
+  private static final int ITERATIONS = 2_000;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @Test
+  void shouldAllocateLessPerRequestThanBuildingArrayNodeTrees() throws Exception {
+    List<ReviewSummary> page = new ArrayList<>();
+    for (long i = 0; i < PAGE_SIZE; i++) {
+      page.add(createReview(i));
+    }
+
+    // warm up both paths so that the measurement excludes class loading and JIT compilation
+    measureAllocatedBytesPerRequest(() -> objectMapper.writeValueAsBytes(mapReviews(page)));
+    measureAllocatedBytesPerRequest(() -> objectMapper.writeValueAsBytes(page));
+
+    long treeBytes =
+        measureAllocatedBytesPerRequest(() -> objectMapper.writeValueAsBytes(mapReviews(page)));
+    long streamingBytes =
+        measureAllocatedBytesPerRequest(() -> objectMapper.writeValueAsBytes(page));
+
+    System.out.println("Allocated bytes per request with ArrayNode tree: " + treeBytes);
+    System.out.println("Allocated bytes per request with JsonGenerator: " + streamingBytes);
+
+    assertTrue(streamingBytes < treeBytes);
+  }
+
+  private long measureAllocatedBytesPerRequest(ThrowingRunnable request) throws Exception {
+    com.sun.management.ThreadMXBean threadMXBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+
+    long before = threadMXBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < ITERATIONS; i++) {
+      request.run();
+    }
+    return (threadMXBean.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+  }
+
+  private ArrayNode mapReviews(List<ReviewSummary> reviews) {
+    ArrayNode result = objectMapper.createArrayNode();
+    reviews.stream().map(this::mapReview).forEach(result::add);
+    return result;
+  }
+
+  private ObjectNode mapReview(ReviewSummary review) {
+    ObjectNode objectNode = objectMapper.createObjectNode();
+    objectNode.put("reviewId", review.id());
+    objectNode.put("reviewContent", review.content());
+    objectNode.put("reviewTitle", review.title());
+    objectNode.put("rating", review.rating());
+    objectNode.put("bookIsbn", review.bookIsbn());
+    objectNode.put("bookTitle", review.bookTitle());
+    objectNode.put("bookThumbnailUrl", review.bookThumbnailUrl());
+    objectNode.put("submittedBy", review.submittedBy());
+    objectNode.put(
+        "submittedAt",
+        review.createdAt().atZone(ZoneId.of("Europe/Berlin")).toInstant().toEpochMilli());
+    return objectNode;
+  }
+
+  private ReviewSummary createReview(Long id) {
+    return new ReviewSummary(
+        id,
+        "Great book with lots of tips & tricks",
+        "I can really recommend reading this book. It includes up-to-date library versions",
+        4,
+        LocalDateTime.of(2020, 8, 11, 7, 45),
+        "9780596004651",
+        "Joyful testing with Spring Boot",
+        "https://rieckpil.de/wp-content/uploads/2020/08/tsbam_introduction_thumbnail.png",
+        "duke");
+  }
+
+  @FunctionalInterface
+  private interface ThrowingRunnable {
+    void run() throws Exception;
+  }
+}
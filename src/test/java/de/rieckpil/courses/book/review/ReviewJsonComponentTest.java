@@ -0,0 +1,99 @@
+package de.rieckpil.courses.book.review;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@JsonTest
+class ReviewJsonComponentTest {
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @Test
+  void shouldWriteReviewLikeTheFormerTreeMapping() throws Exception {
+    ReviewSummary review = createReview(42L);
+
+    assertEquals(
+        objectMapper.writeValueAsString(mapReview(review)),
+        objectMapper.writeValueAsString(review));
+  }
+
+  @Test
+  void shouldWriteReviewStatisticLikeTheFormerTreeMapping() throws Exception {
+    ReviewStatistic statistic = createStatistic(1L);
+
+    assertEquals(
+        objectMapper.writeValueAsString(mapReviewStatistic(statistic)),
+        objectMapper.writeValueAsString(statistic));
+  }
+
+  private ObjectNode mapReview(ReviewSummary review) {
+    ObjectNode objectNode = objectMapper.createObjectNode();
+    objectNode.put("reviewId", review.id());
+    objectNode.put("reviewContent", review.content());
+    objectNode.put("reviewTitle", review.title());
+    objectNode.put("rating", review.rating());
+    objectNode.put("bookIsbn", review.bookIsbn());
+    objectNode.put("bookTitle", review.bookTitle());
+    objectNode.put("bookThumbnailUrl", review.bookThumbnailUrl());
+    objectNode.put("submittedBy", review.submittedBy());
+    objectNode.put(
+        "submittedAt",
+        review.createdAt().atZone(ZoneId.of("Europe/Berlin")).toInstant().toEpochMilli());
+    return objectNode;
+  }
+
+  private ObjectNode mapReviewStatistic(ReviewStatistic reviewStatistic) {
+    ObjectNode statistic = objectMapper.createObjectNode();
+    statistic.put("bookId", reviewStatistic.getId());
+    statistic.put("isbn", reviewStatistic.getIsbn());
+    statistic.put("avg", reviewStatistic.getAvg());
+    statistic.put("ratings", reviewStatistic.getRatings());
+    return statistic;
+  }
+
+  private ReviewSummary createReview(Long id) {
+    return new ReviewSummary(
+        id,
+        "Great book with lots of tips & tricks",
+        "I can really recommend reading this book. It includes up-to-date library versions",
+        4,
+        LocalDateTime.of(2020, 8, 11, 7, 45),
+        "9780596004651",
+        "Joyful testing with Spring Boot",
+        "https://rieckpil.de/wp-content/uploads/2020/08/tsbam_introduction_thumbnail.png",
+        "duke");
+  }
+
+  private ReviewStatistic createStatistic(Long id) {
+    return new ReviewStatistic() {
+      @Override
+      public Long getId() {
+        return id;
+      }
+
+      @Override
+      public Long getRatings() {
+        return 3L;
+      }
+
+      @Override
+      public String getIsbn() {
+        return "9780596004651";
+      }
+
+      @Override
+      public BigDecimal getAvg() {
+        return new BigDecimal("4.00");
+      }
+    };
+  }
+}
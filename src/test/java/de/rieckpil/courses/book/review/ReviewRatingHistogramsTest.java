@@ -0,0 +1,66 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.List;
+
+import de.rieckpil.courses.book.management.Book;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewRatingHistogramsTest {
+
+  @Mock private ReviewRepository reviewRepository;
+
+  @InjectMocks private ReviewRatingHistograms cut;
+
+  @Test
+  void shouldBootstrapHistogramsFromGroupedCounts() {
+    when(reviewRepository.countReviewsByIsbnAndRating())
+        .thenReturn(
+            List.of(
+                new ReviewRatingCount("42", 5, 3L),
+                new ReviewRatingCount("42", 1, 2L),
+                new ReviewRatingCount("84", 0, 1L)));
+
+    cut.rebuild();
+
+    ReviewRatingHistogram result = cut.getHistogram("42");
+
+    assertArrayEquals(new long[] {0, 2, 0, 0, 0, 3}, result.ratings());
+    assertEquals(5, result.total());
+    assertEquals(1, cut.getHistogram("84").total());
+  }
+
+  @Test
+  void shouldApplyCreatedAndDeletedReviews() {
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview(4)));
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview(4)));
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview(2)));
+    cut.onReviewDeleted(new ReviewDeletedEvent(createReview(4)));
+
+    assertArrayEquals(new long[] {0, 0, 1, 0, 1, 0}, cut.getHistogram("42").ratings());
+  }
+
+  @Test
+  void shouldReturnNullForBookWithoutReviews() {
+    assertNull(cut.getHistogram("42"));
+  }
+
+  private Review createReview(int rating) {
+    Book book = new Book();
+    book.setIsbn("42");
+
+    Review review = new Review();
+    review.setBook(book);
+    review.setRating(rating);
+    return review;
+  }
+}
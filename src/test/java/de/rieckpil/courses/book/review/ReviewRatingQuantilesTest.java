@@ -0,0 +1,85 @@
+package de.rieckpil.courses.book.review;
+
+import java.util.List;
+
+import de.rieckpil.courses.book.management.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewRatingQuantilesTest {
+
+  @Mock private ReviewRepository reviewRepository;
+
+  private ReviewRatingQuantiles cut;
+
+  @BeforeEach
+  void setup() {
+    cut = new ReviewRatingQuantiles(reviewRepository);
+
+    when(reviewRepository.countReviewsByGenreAndRating())
+        .thenReturn(
+            List.of(
+                new GenreRatingCount("Testing", 2, 4L),
+                new GenreRatingCount("Testing", 4, 5L),
+                new GenreRatingCount("Testing", 5, 1L),
+                new GenreRatingCount("Fiction", 1, 3L),
+                new GenreRatingCount(null, 0, 10L)));
+
+    cut.rebuild();
+  }
+
+  @Test
+  void shouldComputeExactQuantilesPerGenre() {
+    assertEquals(new RatingQuantiles("Testing", 10, 4, 4), cut.getGenreQuantiles("Testing"));
+    assertEquals(new RatingQuantiles("Fiction", 3, 1, 1), cut.getGenreQuantiles("Fiction"));
+  }
+
+  @Test
+  void shouldComputeCatalogQuantilesOverAllGenres() {
+    assertEquals(
+        new RatingQuantiles(ReviewRatingQuantiles.CATALOG, 23, 1, 4), cut.getCatalogQuantiles());
+  }
+
+  @Test
+  void shouldUpdateQuantilesWhenReviewsAreCreatedAndDeleted() {
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview("Testing", 5)));
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview("Testing", 5)));
+    cut.onReviewDeleted(new ReviewDeletedEvent(createReview("Testing", 2)));
+
+    assertEquals(new RatingQuantiles("Testing", 11, 4, 5), cut.getGenreQuantiles("Testing"));
+  }
+
+  @Test
+  void shouldUseNearestRank() {
+    long[] counts = {0, 0, 1, 0, 0, 1};
+
+    assertEquals(2, ReviewRatingQuantiles.quantile(counts, 2, 0.5));
+    assertEquals(5, ReviewRatingQuantiles.quantile(counts, 2, 0.9));
+    assertNull(ReviewRatingQuantiles.quantile(new long[6], 0, 0.5));
+  }
+
+  @Test
+  void shouldThrowExceptionWhenGenreIsUnknown() {
+    assertThrows(ReviewRollupNotFoundException.class, () -> cut.getGenreQuantiles("Poetry"));
+  }
+
+  private Review createReview(String genre, int rating) {
+    Book book = new Book();
+    book.setIsbn("42");
+    book.setGenre(genre);
+
+    Review review = new Review();
+    review.setRating(rating);
+    review.setBook(book);
+    return review;
+  }
+}
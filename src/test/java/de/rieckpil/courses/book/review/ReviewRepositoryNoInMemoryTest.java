@@ -61,6 +61,21 @@ class ReviewRepositoryNoInMemoryTest {
     assertEquals(new BigDecimal("3.00"), result.get(0).getAvg());
   }
 
+  @Test
+  @Sql(scripts = "/scripts/INIT_REVIEW_EACH_BOOK.sql")
+  void shouldGetRatingTotalsForEachReviewedBook() {
+
+    List<ReviewRatingTotals> result = cut.getReviewRatingTotals();
+
+    assertEquals(2, result.size());
+
+    ReviewRatingTotals secondBook =
+        result.stream().filter(totals -> totals.getBookId() == 2L).findFirst().orElseThrow();
+
+    assertEquals(2, secondBook.getRatings());
+    assertEquals(6, secondBook.getRatingSum());
+  }
+
   @Test
   void databaseShouldBeEmpty() {
     assertEquals(0, cut.count());
@@ -0,0 +1,153 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import de.rieckpil.courses.book.management.Book;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewResponseCacheTest {
+
+  @Mock private ReviewService reviewService;
+
+  private ReviewResponseCache cut;
+
+  private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setup() {
+    // same review representation as the @JsonComponent registered with Spring's ObjectMapper
+    ObjectMapper objectMapper =
+        new ObjectMapper()
+            .registerModule(
+                new SimpleModule()
+                    .addSerializer(
+                        ReviewSummary.class, new ReviewJsonComponent.ReviewSummarySerializer()));
+
+    cut = new ReviewResponseCache(reviewService, objectMapper, 4096);
+    meterRegistry = new SimpleMeterRegistry();
+    cut.bindTo(meterRegistry);
+  }
+
+  @Test
+  void shouldLoadReviewOnlyOnceAndCountHitsAndMisses() {
+    when(reviewService.getReviewById("42", 1L)).thenReturn(createReview(1L));
+
+    byte[] first = cut.getReviewById("42", 1L);
+    byte[] second = cut.getReviewById("42", 1L);
+
+    assertSame(first, second);
+    verify(reviewService, times(1)).getReviewById("42", 1L);
+    assertEquals(1.0, cacheGets("hit"));
+    assertEquals(1.0, cacheGets("miss"));
+  }
+
+  @Test
+  void shouldReloadReviewAfterItWasDeleted() {
+    when(reviewService.getReviewById("42", 1L))
+        .thenReturn(createReview(1L))
+        .thenThrow(new ReviewNotFoundException());
+
+    cut.getReviewById("42", 1L);
+
+    Book book = new Book();
+    book.setIsbn("42");
+    Review deletedReview = new Review();
+    deletedReview.setId(1L);
+    deletedReview.setBook(book);
+
+    cut.onReviewDeleted(new ReviewDeletedEvent(deletedReview));
+
+    assertThrows(ReviewNotFoundException.class, () -> cut.getReviewById("42", 1L));
+  }
+
+  @Test
+  void shouldNotCacheUnknownReviews() {
+    when(reviewService.getReviewById("42", 2L)).thenThrow(new ReviewNotFoundException());
+
+    assertThrows(ReviewNotFoundException.class, () -> cut.getReviewById("42", 2L));
+    assertThrows(ReviewNotFoundException.class, () -> cut.getReviewById("42", 2L));
+
+    verify(reviewService, times(2)).getReviewById("42", 2L);
+  }
+
+  @Test
+  void shouldResolveBatchInRequestOrderAndQueryOnlyUncachedReviews() throws Exception {
+    ReviewReference cached = new ReviewReference("42", 1L);
+    ReviewReference uncached = new ReviewReference("42", 2L);
+    ReviewReference unknown = new ReviewReference("42", 3L);
+
+    when(reviewService.getReviewById("42", 1L)).thenReturn(createReview(1L));
+    when(reviewService.getReviewsByIds(Set.of(uncached, unknown)))
+        .thenReturn(Map.of(uncached, createReview(2L)));
+
+    cut.getReviewById("42", 1L);
+
+    JsonNode result =
+        new ObjectMapper().readTree(cut.getReviewsByIds(List.of(unknown, cached, uncached)));
+
+    assertEquals(3, result.size());
+    assertEquals(ReviewResponseCache.NOT_FOUND, result.get(0).get("status").asText());
+    assertEquals(3L, result.get(0).get("reviewId").asLong());
+    assertNull(result.get(0).get("review"));
+    assertEquals(ReviewResponseCache.FOUND, result.get(1).get("status").asText());
+    assertEquals(1L, result.get(1).get("review").get("reviewId").asLong());
+    assertEquals(2L, result.get(2).get("review").get("reviewId").asLong());
+  }
+
+  @Test
+  void shouldNotCacheReviewsResolvedForBatch() {
+    ReviewReference reference = new ReviewReference("42", 2L);
+
+    when(reviewService.getReviewsByIds(Set.of(reference)))
+        .thenReturn(Map.of(reference, createReview(2L)));
+    when(reviewService.getReviewById("42", 2L)).thenReturn(createReview(2L));
+
+    cut.getReviewsByIds(List.of(reference));
+    cut.getReviewById("42", 2L);
+
+    verify(reviewService, times(1)).getReviewById("42", 2L);
+  }
+
+  private double cacheGets(String result) {
+    return meterRegistry
+        .get("cache.gets")
+        .tag("cache", ReviewResponseCache.CACHE_NAME)
+        .tag("result", result)
+        .functionCounter()
+        .count();
+  }
+
+  private ReviewSummary createReview(Long id) {
+    return new ReviewSummary(
+        id,
+        "Title",
+        "Content",
+        4,
+        LocalDateTime.of(2020, 8, 11, 7, 45),
+        "42",
+        "Java 14",
+        "http://localhost:8080/image.png",
+        "duke");
+  }
+}
@@ -0,0 +1,131 @@
+package de.rieckpil.courses.book.review;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import de.rieckpil.courses.book.management.Book;
+import de.rieckpil.courses.book.management.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewRollupsTest {
+
+  @Mock private ReviewRepository reviewRepository;
+
+  @Mock private ReviewerSketches reviewerSketches;
+
+  private ReviewRollups cut;
+
+  @BeforeEach
+  void setup() {
+    cut = new ReviewRollups(reviewRepository, reviewerSketches);
+
+    when(reviewRepository.getReviewRatingTotals())
+        .thenReturn(
+            List.of(
+                new Totals(1L, "1", "Duke", "Programming", 2L, 9L),
+                new Totals(2L, "2", "Duke", "Testing", 3L, 6L),
+                new Totals(3L, "3", "Mike", "Testing", 1L, 4L),
+                new Totals(4L, "4", null, "Testing", 1L, 5L)));
+
+    cut.rebuild();
+  }
+
+  @Test
+  void shouldRollUpReviewsPerAuthorAndGenre() {
+    when(reviewerSketches.union(anyCollection())).thenReturn(new HyperLogLog());
+
+    assertEquals(
+        List.of(
+            new ReviewRollup("Duke", 2, 5, new BigDecimal("3.00"), 0),
+            new ReviewRollup("Mike", 1, 1, new BigDecimal("4.00"), 0)),
+        cut.getAuthorRollups());
+    assertEquals(
+        new ReviewRollup("Testing", 3, 5, new BigDecimal("3.00"), 0),
+        cut.getGenreRollup("Testing"));
+  }
+
+  @Test
+  void shouldUpdateRollupsOfBookWhenReviewIsCreatedOrDeleted() {
+    when(reviewerSketches.union(anyCollection())).thenReturn(new HyperLogLog());
+
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview("3", "Mike", "Testing", 5)));
+    cut.onReviewDeleted(new ReviewDeletedEvent(createReview("2", "Duke", "Testing", 2)));
+
+    assertEquals(new BigDecimal("4.50"), cut.getAuthorRollup("Mike").avg());
+    assertEquals(4, cut.getAuthorRollup("Duke").ratings());
+    assertEquals(5, cut.getGenreRollup("Testing").ratings());
+  }
+
+  @Test
+  void shouldCountNewBooksOnlyOnce() {
+    when(reviewerSketches.union(anyCollection())).thenReturn(new HyperLogLog());
+
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview("5", "Anna", "Fiction", 4)));
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview("5", "Anna", "Fiction", 2)));
+
+    assertEquals(
+        new ReviewRollup("Anna", 1, 2, new BigDecimal("3.00"), 0), cut.getAuthorRollup("Anna"));
+  }
+
+  @Test
+  void shouldMergeReviewerSketchesOfBooksOnlyOnceUntilReviewIsDeleted() {
+    HyperLogLog sketch = new HyperLogLog();
+    sketch.add(HyperLogLog.hash(1L));
+    when(reviewerSketches.union(Set.of("1", "2"))).thenReturn(sketch);
+
+    assertEquals(1, cut.getAuthorRollup("Duke").reviewers());
+
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview("1", "Duke", "Programming", 4)));
+
+    assertEquals(2, cut.getAuthorRollup("Duke").reviewers());
+    verify(reviewerSketches, times(1)).union(Set.of("1", "2"));
+
+    cut.onReviewDeleted(new ReviewDeletedEvent(createReview("1", "Duke", "Programming", 4)));
+    cut.getAuthorRollup("Duke");
+
+    verify(reviewerSketches, times(2)).union(Set.of("1", "2"));
+  }
+
+  @Test
+  void shouldThrowExceptionWhenRollupIsUnknown() {
+    assertThrows(ReviewRollupNotFoundException.class, () -> cut.getGenreRollup("Poetry"));
+  }
+
+  private Review createReview(String isbn, String author, String genre, int rating) {
+    Book book = new Book();
+    book.setIsbn(isbn);
+    book.setAuthor(author);
+    book.setGenre(genre);
+
+    User user = new User();
+    user.setId(2L);
+
+    Review review = new Review();
+    review.setRating(rating);
+    review.setBook(book);
+    review.setUser(user);
+    return review;
+  }
+
+  private record Totals(
+      Long getBookId,
+      String getIsbn,
+      String getAuthor,
+      String getGenre,
+      Long getRatings,
+      Long getRatingSum)
+      implements ReviewRatingTotals {}
+}
@@ -0,0 +1,197 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import de.rieckpil.courses.book.management.Book;
+import de.rieckpil.courses.book.management.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewSearchIndexTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2020, 8, 11, 7, 45);
+
+  @Mock private ReviewRepository reviewRepository;
+
+  private ReviewSearchIndex cut;
+
+  @BeforeEach
+  void setup() {
+    cut = new ReviewSearchIndex(reviewRepository, 2);
+
+    // the repository resolves every id it is asked for, in its own order
+    lenient()
+        .when(reviewRepository.findSummariesByIdIn(anyCollection()))
+        .thenAnswer(
+            invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream()
+                    .sorted()
+                    .map(id -> summary(id, "Title", "Content"))
+                    .toList());
+  }
+
+  @Test
+  void shouldTokenizeCaseInsensitivelyOnNonAlphanumericCharacters() {
+    assertEquals(
+        List.of("great", "read", "for", "java", "17", "devs"),
+        ReviewSearchIndex.tokenize("Great read -- for Java 17 devs!"));
+    assertEquals(List.of(), ReviewSearchIndex.tokenize("a ! ?"));
+  }
+
+  @Test
+  void shouldRankReviewsByRelevance() {
+    when(reviewRepository.streamAllSummaries())
+        .thenReturn(
+            Stream.of(
+                summary(1L, "Okay", "Some testing advice buried in a long story about cats"),
+                summary(2L, "Testing", "Everything about testing Spring applications"),
+                summary(3L, "Cooking", "Nothing related at all")));
+
+    cut.rebuild();
+
+    assertEquals(List.of(2L, 1L), ids(cut.search("Testing", 10)));
+    assertEquals(List.of(3L), ids(cut.search("cooking", 10)));
+    assertEquals(List.of(), ids(cut.search("kotlin", 10)));
+  }
+
+  @Test
+  void shouldLimitResultsToMaximum() {
+    when(reviewRepository.streamAllSummaries())
+        .thenReturn(
+            Stream.of(
+                summary(1L, "Spring", "Content"),
+                summary(2L, "Spring", "Content"),
+                summary(3L, "Spring", "Content")));
+
+    cut.rebuild();
+
+    assertEquals(1, cut.search("spring", 1).size());
+    assertEquals(2, cut.search("spring", 50).size());
+  }
+
+  @Test
+  void shouldIndexCreatedAndSkipDeletedReviews() {
+    when(reviewRepository.streamAllSummaries()).thenReturn(Stream.empty());
+    cut.rebuild();
+
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview(1L, "Mockito", "Mocks everywhere")));
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview(2L, "Mockito", "Stubs everywhere")));
+
+    assertEquals(List.of(2L, 1L), ids(cut.search("mockito", 10)));
+
+    cut.onReviewDeleted(new ReviewDeletedEvent(createReview(2L, "Mockito", "Stubs everywhere")));
+
+    assertEquals(List.of(1L), ids(cut.search("mockito", 10)));
+  }
+
+  @Test
+  void shouldCompactDeletedReviewsOutOfTheIndex() {
+    when(reviewRepository.streamAllSummaries()).thenReturn(Stream.empty());
+    cut.rebuild();
+
+    for (long id = 1; id <= 200; id++) {
+      cut.onReviewCreated(new ReviewCreatedEvent(createReview(id, "Spring", "Review " + id)));
+    }
+
+    for (long id = 1; id <= 128; id++) {
+      cut.onReviewDeleted(new ReviewDeletedEvent(createReview(id, "Spring", "Review " + id)));
+    }
+
+    assertEquals(72, cut.indexedDocuments());
+    assertEquals(List.of(), ids(cut.search("10", 10)));
+    assertEquals(List.of(150L), ids(cut.search("150", 10)));
+    assertEquals(List.of(200L, 199L), ids(cut.search("spring", 2)));
+
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview(201L, "Kotlin", "Review 201")));
+
+    assertEquals(List.of(201L), ids(cut.search("kotlin", 10)));
+  }
+
+  @Test
+  void shouldReplayChangesThatArriveWhileRebuilding() {
+    when(reviewRepository.streamAllSummaries())
+        .thenReturn(
+            Stream.of(summary(1L, "Mockito", "Mocks everywhere"))
+                .peek(
+                    review -> {
+                      cut.onReviewCreated(
+                          new ReviewCreatedEvent(createReview(2L, "Mockito", "Stubs everywhere")));
+                      cut.onReviewDeleted(
+                          new ReviewDeletedEvent(createReview(1L, "Mockito", "Mocks everywhere")));
+                    }));
+
+    cut.rebuild();
+
+    assertEquals(List.of(2L), ids(cut.search("mockito", 10)));
+  }
+
+  @Test
+  void shouldNotCountDeletedReviewsTowardsTheTermRarity() {
+    when(reviewRepository.streamAllSummaries())
+        .thenReturn(
+            Stream.concat(
+                Stream.of(
+                    summary(1L, "Review", "java"),
+                    summary(2L, "Review", "spring spring"),
+                    summary(3L, "Review", "other words"),
+                    summary(4L, "Review", "other words"),
+                    summary(5L, "Review", "other words"),
+                    summary(6L, "Review", "other words"),
+                    summary(7L, "Review", "other words")),
+                LongStream.rangeClosed(10, 19).mapToObj(id -> summary(id, "Review", "spring"))));
+
+    cut.rebuild();
+    LongStream.rangeClosed(10, 19)
+        .forEach(
+            id ->
+                cut.onReviewDeleted(new ReviewDeletedEvent(createReview(id, "Review", "spring"))));
+
+    // ranked as if the deleted reviews had never been indexed, they must not make spring common
+    assertEquals(List.of(2L, 1L), ids(cut.search("java spring", 10)));
+  }
+
+  @Test
+  void shouldRejectQueryWithoutSearchableTerms() {
+    assertThrows(InvalidSearchQueryException.class, () -> cut.search(" - ", 10));
+  }
+
+  private Review createReview(Long id, String title, String content) {
+    Book book = new Book();
+    book.setIsbn("42");
+
+    User user = new User();
+    user.setName("duke");
+
+    Review review = new Review();
+    review.setId(id);
+    review.setTitle(title);
+    review.setContent(content);
+    review.setRating(4);
+    review.setCreatedAt(NOW);
+    review.setBook(book);
+    review.setUser(user);
+    return review;
+  }
+
+  private ReviewSummary summary(Long id, String title, String content) {
+    return new ReviewSummary(id, title, content, 4, NOW, "42", "Book", null, "duke");
+  }
+
+  private List<Long> ids(List<ReviewSummary> reviews) {
+    return reviews.stream().map(ReviewSummary::id).toList();
+  }
+}
@@ -0,0 +1,167 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+import de.rieckpil.courses.book.management.Book;
+import de.rieckpil.courses.book.management.User;
+import de.rieckpil.courses.book.management.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest(
+    properties = {
+      "spring.flyway.enabled=false",
+      "spring.jpa.hibernate.ddl-auto=create-drop",
+      "spring.jpa.properties.hibernate.generate_statistics=true"
+    })
+@AutoConfigureJson
+@Import({
+  ReviewService.class,
+  ReviewVerifier.class,
+  UserService.class,
+  TopRatedReviews.class,
+  ReviewRatingHistograms.class,
+  BookReviewFirstPages.class
+})
+class ReviewServiceStatementCountTest {
+
+  private static final int BOOKS = 5;
+  private static final int USERS = 10;
+
+  @Autowired private TestEntityManager testEntityManager;
+
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  @MockBean private ReviewStatisticsAggregator reviewStatisticsAggregator;
+
+  @MockBean private ReviewerSketches reviewerSketches;
+
+  @Autowired private TopRatedReviews topRatedReviews;
+
+  @Autowired private ReviewService cut;
+
+  private Statistics statistics;
+
+  private String isbnOfFirstReview;
+  private Long idOfFirstReview;
+
+  @BeforeEach
+  void setup() {
+    LocalDateTime now = LocalDateTime.now();
+
+    for (int bookIndex = 0; bookIndex < BOOKS; bookIndex++) {
+      Book book = new Book();
+      book.setTitle("Book " + bookIndex);
+      book.setIsbn("978000000000" + bookIndex);
+      book.setThumbnailUrl("http://localhost:8080/" + bookIndex + ".png");
+      testEntityManager.persist(book);
+
+      for (int userIndex = 0; userIndex < USERS; userIndex++) {
+        User user = new User();
+        user.setName("duke" + bookIndex + userIndex);
+        user.setEmail("duke" + bookIndex + userIndex + "@spring.io");
+        user.setCreatedAt(now);
+        testEntityManager.persist(user);
+
+        Review review = new Review();
+        review.setTitle("Review");
+        review.setContent("Content");
+        review.setRating(userIndex % 6);
+        review.setCreatedAt(now.minusMinutes(bookIndex * USERS + userIndex));
+        review.setBook(book);
+        review.setUser(user);
+        testEntityManager.persist(review);
+
+        if (idOfFirstReview == null) {
+          idOfFirstReview = review.getId();
+          isbnOfFirstReview = book.getIsbn();
+        }
+      }
+    }
+
+    testEntityManager.flush();
+
+    // plain insert as H2 does not know the ON CONFLICT clause of ReviewRepository.writeReviewView
+    testEntityManager
+        .getEntityManager()
+        .createNativeQuery(
+            "INSERT INTO review_view (review_id, title, content, rating, created_at, "
+                + "book_id, book_isbn, book_title, book_thumbnail_url, submitted_by) "
+                + ReviewRepository.SELECT_REVIEW_VIEW_ROWS)
+        .setParameter("fromId", 0L)
+        .setParameter("toId", Long.MAX_VALUE)
+        .executeUpdate();
+
+    testEntityManager.clear();
+
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 10, 49})
+  void shouldFetchReviewPageWithOneStatementRegardlessOfPageSize(int size) {
+    ReviewPage firstPage = cut.getAllReviews(size, "none", null);
+
+    assertEquals(size, firstPage.reviews().size());
+    assertEquals(1, statistics.getPrepareStatementCount());
+
+    cut.getAllReviews(size, "none", firstPage.nextCursor());
+
+    assertEquals(2, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  void shouldLoadTopRatedReviewsWithOneStatementAndServeThemFromMemory() {
+    topRatedReviews.rebuild();
+
+    assertEquals(1, statistics.getPrepareStatementCount());
+
+    ReviewPage result = cut.getAllReviews(20, "rating", null);
+
+    assertEquals(20, result.reviews().size());
+    assertEquals(5, result.reviews().get(0).rating());
+    assertEquals(1, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  void shouldFetchOnlySelectedFieldsWithOneStatementPerPage() {
+    Set<ReviewField> fields = EnumSet.of(ReviewField.REVIEW_TITLE, ReviewField.RATING);
+
+    ReviewPage firstPage = cut.getAllReviews(10, "none", null, fields);
+
+    assertEquals(10, firstPage.reviews().size());
+    assertEquals("Review", firstPage.reviews().get(0).title());
+    assertNull(firstPage.reviews().get(0).content());
+    assertNull(firstPage.reviews().get(0).bookTitle());
+    assertEquals(1, statistics.getPrepareStatementCount());
+
+    ReviewPage secondPage = cut.getAllReviews(10, "none", firstPage.nextCursor(), fields);
+
+    assertEquals(10, secondPage.reviews().size());
+    assertEquals(2, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  void shouldFetchSingleReviewWithOneStatement() {
+    cut.getReviewById(isbnOfFirstReview, idOfFirstReview);
+
+    assertEquals(1, statistics.getPrepareStatementCount());
+  }
+}
@@ -1,6 +1,12 @@
 package de.rieckpil.courses.book.review;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import de.rieckpil.courses.book.management.Book;
+import de.rieckpil.courses.book.management.BookNotFoundException;
 import de.rieckpil.courses.book.management.BookRepository;
 import de.rieckpil.courses.book.management.User;
 import de.rieckpil.courses.book.management.UserService;
@@ -11,6 +17,8 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,6 +34,18 @@ class ReviewServiceTest {
 
   @Mock private ReviewRepository reviewRepository;
 
+  @Mock private ApplicationEventPublisher eventPublisher;
+
+  @Mock private ReviewStatisticsAggregator reviewStatisticsAggregator;
+
+  @Mock private TopRatedReviews topRatedReviews;
+
+  @Mock private ReviewRatingHistograms reviewRatingHistograms;
+
+  @Mock private BookReviewFirstPages bookReviewFirstPages;
+
+  @Mock private ReviewerSketches reviewerSketches;
+
   @InjectMocks private ReviewService cut;
 
   private static final String EMAIL = "duke@spring.io";
@@ -75,7 +95,7 @@ class ReviewServiceTest {
     when(bookRepository.findByIsbn(ISBN)).thenReturn(new Book());
     when(mockedReviewVerifier.doesMeetQualityStandards(bookReviewRequest.getReviewContent()))
         .thenReturn(true);
-    when(userService.getOrCreateUser(USERNAME, EMAIL)).thenReturn(new User());
+    when(userService.getOrCreateUser(USERNAME, EMAIL)).thenReturn(createUser());
     when(reviewRepository.save(any(Review.class)))
         .thenAnswer(
             invocation -> {
@@ -89,4 +109,285 @@ class ReviewServiceTest {
     Long expected = 42L;
     assertEquals(expected, result);
   }
+
+  @Test
+  void shouldWriteReviewViewRowWhenReviewIsStored() {
+    BookReviewRequest bookReviewRequest = new BookReviewRequest("Title", "GOOD CONTENT!", 4);
+
+    when(bookRepository.findByIsbn(ISBN)).thenReturn(new Book());
+    when(mockedReviewVerifier.doesMeetQualityStandards(bookReviewRequest.getReviewContent()))
+        .thenReturn(true);
+    when(userService.getOrCreateUser(USERNAME, EMAIL)).thenReturn(createUser());
+    when(reviewRepository.save(any(Review.class)))
+        .thenAnswer(
+            invocation -> {
+              Review reviewToSave = invocation.getArgument(0);
+              reviewToSave.setId(42L);
+              return reviewToSave;
+            });
+
+    cut.createBookReview(ISBN, bookReviewRequest, USERNAME, EMAIL);
+
+    verify(reviewRepository).writeReviewView(42L, 42L);
+  }
+
+  @Test
+  void shouldUpdateReviewStatisticsWhenReviewIsStored() {
+    BookReviewRequest bookReviewRequest = new BookReviewRequest("Title", "GOOD CONTENT!", 4);
+
+    Book book = new Book();
+    book.setId(7L);
+
+    when(bookRepository.findByIsbn(ISBN)).thenReturn(book);
+    when(mockedReviewVerifier.doesMeetQualityStandards(bookReviewRequest.getReviewContent()))
+        .thenReturn(true);
+    when(userService.getOrCreateUser(USERNAME, EMAIL)).thenReturn(createUser());
+    when(reviewRepository.save(any(Review.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    cut.createBookReview(ISBN, bookReviewRequest, USERNAME, EMAIL);
+
+    verify(reviewRepository).addToReviewStatistics(7L, 4);
+    verify(eventPublisher).publishEvent(any(ReviewCreatedEvent.class));
+  }
+
+  @Test
+  void shouldUpdateReviewStatisticsWhenReviewIsDeleted() {
+    Book book = new Book();
+    book.setId(7L);
+
+    Review review = new Review();
+    review.setBook(book);
+    review.setRating(2);
+
+    when(reviewRepository.deleteByIdAndBookIsbn(42L, ISBN)).thenReturn(List.of(review));
+
+    cut.deleteReview(ISBN, 42L);
+
+    verify(reviewRepository).removeFromReviewStatistics(7L, 2);
+    verify(reviewRepository).deleteEmptyReviewStatistics(7L);
+    verify(eventPublisher).publishEvent(new ReviewDeletedEvent(review));
+  }
+
+  @Test
+  void shouldUpdateReviewerSketchWhenReviewIsStored() {
+    BookReviewRequest bookReviewRequest = new BookReviewRequest("Title", "GOOD CONTENT!", 4);
+
+    Book book = new Book();
+    book.setId(7L);
+
+    when(bookRepository.findByIsbn(ISBN)).thenReturn(book);
+    when(mockedReviewVerifier.doesMeetQualityStandards(bookReviewRequest.getReviewContent()))
+        .thenReturn(true);
+    when(userService.getOrCreateUser(USERNAME, EMAIL)).thenReturn(createUser());
+    when(reviewRepository.save(any(Review.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    cut.createBookReview(ISBN, bookReviewRequest, USERNAME, EMAIL);
+
+    long hash = HyperLogLog.hash(1L);
+    verify(reviewRepository)
+        .addToReviewerSketch(7L, HyperLogLog.register(hash), HyperLogLog.rank(hash));
+  }
+
+  @Test
+  void shouldRecomputeReviewerSketchWhenReviewIsDeleted() {
+    Book book = new Book();
+    book.setId(7L);
+
+    Review review = new Review();
+    review.setBook(book);
+    review.setRating(2);
+
+    when(reviewRepository.deleteByIdAndBookIsbn(42L, ISBN)).thenReturn(List.of(review));
+
+    cut.deleteReview(ISBN, 42L);
+
+    verify(reviewRepository).writeReviewerSketch(7L);
+    verify(reviewRepository).deleteEmptyReviewerSketch(7L);
+  }
+
+  @Test
+  void shouldReturnEstimatedReviewersOfBook() {
+    when(reviewerSketches.estimateReviewers(ISBN)).thenReturn(3L);
+
+    assertEquals(new ReviewerCount(ISBN, 3), cut.getReviewerCount(ISBN));
+    verify(bookRepository, never()).findByIsbn(ISBN);
+  }
+
+  @Test
+  void shouldThrowExceptionWhenReviewersAreRequestedForUnknownBook() {
+    when(reviewerSketches.estimateReviewers(ISBN)).thenReturn(null);
+    when(bookRepository.findByIsbn(ISBN)).thenReturn(null);
+
+    assertThrows(BookNotFoundException.class, () -> cut.getReviewerCount(ISBN));
+  }
+
+  @Test
+  void shouldServeTopRatedReviewsFromMemory() {
+    when(topRatedReviews.getTopRated(10)).thenReturn(List.of());
+
+    ReviewPage result = cut.getAllReviews(10, "rating", null);
+
+    assertNull(result.nextCursor());
+    verify(reviewRepository, never()).findTopRatedSummaries(any());
+  }
+
+  @Test
+  void shouldReturnEmptyHistogramWhenBookHasNoReviews() {
+    when(reviewRatingHistograms.getHistogram(ISBN)).thenReturn(null);
+    when(bookRepository.findByIsbn(ISBN)).thenReturn(new Book());
+
+    ReviewRatingHistogram result = cut.getRatingHistogram(ISBN);
+
+    assertArrayEquals(new long[6], result.ratings());
+    assertEquals(0, result.total());
+  }
+
+  @Test
+  void shouldThrowExceptionWhenHistogramIsRequestedForUnknownBook() {
+    when(reviewRatingHistograms.getHistogram(ISBN)).thenReturn(null);
+    when(bookRepository.findByIsbn(ISBN)).thenReturn(null);
+
+    assertThrows(BookNotFoundException.class, () -> cut.getRatingHistogram(ISBN));
+  }
+
+  @Test
+  void shouldServeFirstPageOfBookReviewsFromCache() {
+    List<ReviewSummary> firstPage =
+        List.of(createReview(3L, 3), createReview(2L, 2), createReview(1L, 1));
+
+    when(bookReviewFirstPages.getPageSize()).thenReturn(50);
+    when(bookReviewFirstPages.getFirstPage(ISBN)).thenReturn(firstPage);
+
+    ReviewPage result = cut.getBookReviews(ISBN, 2, null);
+
+    assertEquals(2, result.reviews().size());
+    assertEquals(
+        new ReviewCursor(firstPage.get(1).createdAt(), 2L),
+        ReviewCursor.decode(result.nextCursor()));
+    verifyNoInteractions(reviewRepository);
+  }
+
+  @Test
+  void shouldQueryBookReviewsWhenPageSizeExceedsCachedFirstPage() {
+    when(bookReviewFirstPages.getPageSize()).thenReturn(50);
+    when(bookRepository.findByIsbn(ISBN)).thenReturn(new Book());
+
+    cut.getBookReviews(ISBN, 100, null);
+
+    verify(reviewRepository).findLatestSummariesByBookIsbn(ISBN, PageRequest.of(0, 101));
+    verify(bookReviewFirstPages, never()).getFirstPage(ISBN);
+  }
+
+  @Test
+  void shouldQueryFollowingBookReviewPagesWithCursor() {
+    LocalDateTime createdAt = LocalDateTime.of(2020, 8, 11, 7, 45);
+    when(bookRepository.findByIsbn(ISBN)).thenReturn(new Book());
+
+    cut.getBookReviews(ISBN, 10, new ReviewCursor(createdAt, 42L).encode());
+
+    verify(reviewRepository)
+        .findLatestSummariesByBookIsbnCreatedBefore(ISBN, createdAt, 42L, PageRequest.of(0, 11));
+    verify(bookReviewFirstPages, never()).getFirstPage(ISBN);
+  }
+
+  @Test
+  void shouldRejectBookReviewsOfUnknownBook() {
+    when(bookReviewFirstPages.getPageSize()).thenReturn(50);
+    when(bookRepository.findByIsbn(ISBN)).thenReturn(null);
+
+    assertThrows(BookNotFoundException.class, () -> cut.getBookReviews(ISBN, 100, null));
+  }
+
+  @Test
+  void shouldServeReviewStatisticsFromAggregator() {
+    cut.getReviewStatistics();
+
+    verify(reviewStatisticsAggregator).getReviewStatistics();
+    verify(reviewRepository, never()).getReviewStatistics();
+  }
+
+  @Test
+  void shouldNotUpdateReviewStatisticsWhenNoReviewWasDeleted() {
+    when(reviewRepository.deleteByIdAndBookIsbn(42L, ISBN)).thenReturn(List.of());
+
+    cut.deleteReview(ISBN, 42L);
+
+    verify(reviewRepository, never()).removeFromReviewStatistics(anyLong(), anyInt());
+  }
+
+  @Test
+  void shouldReturnCursorOfLastReviewWhenMoreReviewsThanRequestedExist() {
+    List<ReviewSummary> reviews =
+        List.of(createReview(3L, 3), createReview(2L, 2), createReview(1L, 1));
+
+    when(reviewRepository.findLatestSummaries(PageRequest.of(0, 3))).thenReturn(reviews);
+
+    ReviewPage result = cut.getAllReviews(2, "none", null);
+
+    assertEquals(2, result.reviews().size());
+    assertEquals(
+        new ReviewCursor(reviews.get(1).createdAt(), 2L), ReviewCursor.decode(result.nextCursor()));
+  }
+
+  @Test
+  void shouldRejectPageSizeOutsideOfBounds() {
+    assertThrows(
+        InvalidPageSizeException.class,
+        () -> cut.getAllReviews(ReviewPage.MAX_SIZE + 1, "none", null));
+    assertThrows(InvalidPageSizeException.class, () -> cut.getAllReviews(0, "none", null));
+    assertThrows(InvalidPageSizeException.class, () -> cut.getBookReviews("42", -1, null));
+
+    verifyNoInteractions(reviewRepository);
+  }
+
+  @Test
+  void shouldNotReturnCursorWhenLastPageIsReached() {
+    ReviewCursor after = new ReviewCursor(LocalDateTime.of(2020, 8, 11, 7, 45), 3L);
+
+    when(reviewRepository.findLatestSummariesCreatedBefore(
+            after.createdAt(), 3L, PageRequest.of(0, 3)))
+        .thenReturn(List.of(createReview(2L, 2), createReview(1L, 1)));
+
+    ReviewPage result = cut.getAllReviews(2, "none", after.encode());
+
+    assertEquals(2, result.reviews().size());
+    assertNull(result.nextCursor());
+  }
+
+  @Test
+  void shouldResolveReviewBatchWithOneQueryAndSkipReviewsOfOtherBooks() {
+    ReviewReference matching = new ReviewReference(ISBN, 1L);
+    ReviewReference otherBook = new ReviewReference("1234567891234", 2L);
+
+    when(reviewRepository.findSummariesByIdIn(Set.of(1L, 2L)))
+        .thenReturn(List.of(createReview(1L, 1), createReview(2L, 2)));
+
+    Map<ReviewReference, ReviewSummary> result = cut.getReviewsByIds(List.of(matching, otherBook));
+
+    assertEquals(Set.of(matching), result.keySet());
+    assertEquals(1L, result.get(matching).id());
+  }
+
+  private ReviewSummary createReview(Long id, int minutes) {
+    return new ReviewSummary(
+        id,
+        "Review " + id,
+        "Content " + id,
+        4,
+        LocalDateTime.of(2020, 8, 11, 7, 45).plusMinutes(minutes),
+        ISBN,
+        "Java 14",
+        "http://localhost:8080/image.png",
+        USERNAME);
+  }
+
+  private User createUser() {
+    User user = new User();
+    user.setId(1L);
+    user.setName(USERNAME);
+    user.setEmail(EMAIL);
+    return user;
+  }
 }
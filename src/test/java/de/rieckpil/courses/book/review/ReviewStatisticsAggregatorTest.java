@@ -0,0 +1,106 @@
+package de.rieckpil.courses.book.review;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import de.rieckpil.courses.book.management.Book;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewStatisticsAggregatorTest {
+
+  @Mock private ReviewRepository reviewRepository;
+
+  @InjectMocks private ReviewStatisticsAggregator cut;
+
+  @Test
+  void shouldRebuildStatisticsFromStoredTotals() {
+    ReviewRatingTotals totals = mock(ReviewRatingTotals.class);
+    when(totals.getBookId()).thenReturn(1L);
+    when(totals.getIsbn()).thenReturn("42");
+    when(totals.getRatings()).thenReturn(3L);
+    when(totals.getRatingSum()).thenReturn(11L);
+    when(reviewRepository.getReviewRatingTotals()).thenReturn(List.of(totals));
+
+    cut.rebuild();
+
+    List<ReviewStatistic> result = cut.getReviewStatistics();
+
+    assertEquals(1, result.size());
+    assertEquals(1L, result.get(0).getId());
+    assertEquals("42", result.get(0).getIsbn());
+    assertEquals(3L, result.get(0).getRatings());
+    assertEquals(new BigDecimal("3.67"), result.get(0).getAvg());
+  }
+
+  @Test
+  void shouldApplyCreatedAndDeletedReviews() {
+    Book book = createBook(1L, "42");
+
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview(book, 5)));
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview(book, 2)));
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview(book, 4)));
+    cut.onReviewDeleted(new ReviewDeletedEvent(createReview(book, 2)));
+
+    List<ReviewStatistic> result = cut.getReviewStatistics();
+
+    assertEquals(1, result.size());
+    assertEquals(2L, result.get(0).getRatings());
+    assertEquals(new BigDecimal("4.50"), result.get(0).getAvg());
+  }
+
+  @Test
+  void shouldDropBookWhenLastReviewIsDeleted() {
+    Book book = createBook(1L, "42");
+
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview(book, 0)));
+    cut.onReviewDeleted(new ReviewDeletedEvent(createReview(book, 0)));
+
+    assertTrue(cut.getReviewStatistics().isEmpty());
+  }
+
+  @Test
+  void shouldKeepCountAndSumConsistentUnderConcurrentWrites() throws InterruptedException {
+    Book book = createBook(1L, "42");
+    ExecutorService executorService = Executors.newFixedThreadPool(8);
+
+    for (int i = 0; i < 10_000; i++) {
+      executorService.submit(
+          () -> cut.onReviewCreated(new ReviewCreatedEvent(createReview(book, 3))));
+    }
+
+    executorService.shutdown();
+    assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+
+    ReviewStatistic result = cut.getReviewStatistics().get(0);
+
+    assertEquals(10_000L, result.getRatings());
+    assertEquals(new BigDecimal("3.00"), result.getAvg());
+  }
+
+  private Book createBook(Long id, String isbn) {
+    Book book = new Book();
+    book.setId(id);
+    book.setIsbn(isbn);
+    return book;
+  }
+
+  private Review createReview(Book book, int rating) {
+    Review review = new Review();
+    review.setBook(book);
+    review.setRating(rating);
+    return review;
+  }
+}
@@ -0,0 +1,107 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import de.rieckpil.courses.book.management.Book;
+import de.rieckpil.courses.book.management.User;
+import de.rieckpil.courses.config.WebSecurityConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.awaitility.Awaitility.given;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@WebMvcTest(ReviewStreamController.class)
+@Import({WebSecurityConfig.class, ReviewEventStream.class})
+class ReviewStreamControllerTest {
+
+  @Autowired private ReviewEventStream reviewEventStream;
+
+  @Autowired private MockMvc mockMvc;
+
+  @Test
+  void shouldPushCreatedReviewsToSubscribers() throws Exception {
+    MvcResult result =
+        this.mockMvc
+            .perform(get("/api/books/reviews/stream"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    reviewEventStream.onReviewCreated(new ReviewCreatedEvent(createReview(1L, "Pushed")));
+
+    given()
+        .await()
+        .atMost(5, TimeUnit.SECONDS)
+        .untilAsserted(
+            () -> {
+              String events = result.getResponse().getContentAsString();
+              assertTrue(events.contains("event:review"));
+              assertTrue(events.contains("\"reviewTitle\":\"Pushed\""));
+            });
+  }
+
+  @Test
+  void shouldResumeAfterLastEventIdWhenReconnecting() throws Exception {
+    MvcResult firstConnection =
+        this.mockMvc
+            .perform(get("/api/books/reviews/stream"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    reviewEventStream.onReviewCreated(new ReviewCreatedEvent(createReview(2L, "Received")));
+
+    given()
+        .await()
+        .atMost(5, TimeUnit.SECONDS)
+        .untilAsserted(
+            () -> assertTrue(firstConnection.getResponse().getContentAsString().contains("id:")));
+
+    String events = firstConnection.getResponse().getContentAsString();
+    String lastEventId = events.substring(events.indexOf("id:") + 3, events.indexOf('\n'));
+
+    reviewEventStream.onReviewCreated(new ReviewCreatedEvent(createReview(3L, "Missed")));
+
+    MvcResult secondConnection =
+        this.mockMvc
+            .perform(get("/api/books/reviews/stream").header("Last-Event-ID", lastEventId))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    given()
+        .await()
+        .atMost(5, TimeUnit.SECONDS)
+        .untilAsserted(
+            () -> {
+              String resumed = secondConnection.getResponse().getContentAsString();
+              assertTrue(resumed.contains("\"reviewTitle\":\"Missed\""));
+              assertFalse(resumed.contains("\"reviewTitle\":\"Received\""));
+            });
+  }
+
+  private Review createReview(Long id, String title) {
+    Book book = new Book();
+    book.setIsbn("42");
+    book.setTitle("Java 14");
+
+    User user = new User();
+    user.setName("duke");
+
+    Review review = new Review();
+    review.setId(id);
+    review.setTitle(title);
+    review.setContent("Content");
+    review.setRating(4);
+    review.setCreatedAt(LocalDateTime.of(2020, 8, 11, 7, 45));
+    review.setBook(book);
+    review.setUser(user);
+    return review;
+  }
+}
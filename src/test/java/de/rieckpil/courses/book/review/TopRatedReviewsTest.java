@@ -0,0 +1,116 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import de.rieckpil.courses.book.management.Book;
+import de.rieckpil.courses.book.management.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TopRatedReviewsTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2020, 8, 11, 7, 45);
+
+  @Mock private ReviewRepository reviewRepository;
+
+  private TopRatedReviews cut;
+
+  @BeforeEach
+  void setup() {
+    cut = new TopRatedReviews(reviewRepository, 3);
+  }
+
+  @Test
+  void shouldOrderByRatingThenNewestFirst() {
+    when(reviewRepository.findTopRatedSummaries(PageRequest.of(0, 3))).thenReturn(List.of());
+    cut.rebuild();
+
+    cut.onReviewCreated(createdEvent(1L, 3, NOW));
+    cut.onReviewCreated(createdEvent(2L, 5, NOW));
+    cut.onReviewCreated(createdEvent(3L, 3, NOW.plusMinutes(1)));
+
+    assertEquals(List.of(2L, 3L, 1L), ids(cut.getTopRated(10)));
+    assertEquals(List.of(2L), ids(cut.getTopRated(1)));
+  }
+
+  @Test
+  void shouldKeepOnlyCapacityReviews() {
+    when(reviewRepository.findTopRatedSummaries(PageRequest.of(0, 3))).thenReturn(List.of());
+    cut.rebuild();
+
+    for (long id = 1; id <= 10; id++) {
+      cut.onReviewCreated(createdEvent(id, (int) (id % 6), NOW));
+    }
+
+    assertEquals(List.of(5L, 10L, 4L), ids(cut.getTopRated(20)));
+  }
+
+  @Test
+  void shouldReloadFullRankingWhenRankedReviewIsDeleted() {
+    when(reviewRepository.findTopRatedSummaries(PageRequest.of(0, 3)))
+        .thenReturn(List.of(summary(1L, 5, NOW), summary(2L, 4, NOW), summary(3L, 3, NOW)))
+        .thenReturn(List.of(summary(1L, 5, NOW), summary(3L, 3, NOW), summary(4L, 2, NOW)));
+    cut.rebuild();
+
+    cut.onReviewDeleted(deletedEvent(2L, 4));
+
+    assertEquals(List.of(1L, 3L, 4L), ids(cut.getTopRated(3)));
+    verify(reviewRepository, times(2)).findTopRatedSummaries(any());
+  }
+
+  @Test
+  void shouldNotReloadWhenDeletedReviewWasNotRanked() {
+    when(reviewRepository.findTopRatedSummaries(PageRequest.of(0, 3)))
+        .thenReturn(List.of(summary(1L, 5, NOW), summary(2L, 4, NOW), summary(3L, 3, NOW)));
+    cut.rebuild();
+
+    cut.onReviewDeleted(deletedEvent(4L, 1));
+
+    verify(reviewRepository, times(1)).findTopRatedSummaries(any());
+  }
+
+  private ReviewCreatedEvent createdEvent(Long id, int rating, LocalDateTime createdAt) {
+    Review review = createReview(id, rating);
+    review.setCreatedAt(createdAt);
+    return new ReviewCreatedEvent(review);
+  }
+
+  private ReviewDeletedEvent deletedEvent(Long id, int rating) {
+    return new ReviewDeletedEvent(createReview(id, rating));
+  }
+
+  private Review createReview(Long id, int rating) {
+    Book book = new Book();
+    book.setIsbn("42");
+
+    User user = new User();
+    user.setName("duke");
+
+    Review review = new Review();
+    review.setId(id);
+    review.setRating(rating);
+    review.setBook(book);
+    review.setUser(user);
+    return review;
+  }
+
+  private ReviewSummary summary(Long id, int rating, LocalDateTime createdAt) {
+    return new ReviewSummary(id, "Title", "Content", rating, createdAt, "42", "Book", null, "duke");
+  }
+
+  private List<Long> ids(List<ReviewSummary> reviews) {
+    return reviews.stream().map(ReviewSummary::id).toList();
+  }
+}
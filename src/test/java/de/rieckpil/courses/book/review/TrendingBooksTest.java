@@ -0,0 +1,167 @@
+package de.rieckpil.courses.book.review;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import de.rieckpil.courses.book.management.Book;
+import de.rieckpil.courses.book.management.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TrendingBooksTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2020, 8, 11, 7, 45);
+  private static final ZoneId ZONE = ZoneOffset.UTC;
+  private static final Clock CLOCK = Clock.fixed(NOW.atZone(ZONE).toInstant(), ZONE);
+
+  @Mock private ReviewRepository reviewRepository;
+
+  private TrendingBooks cut;
+
+  @BeforeEach
+  void setup() {
+    cut = new TrendingBooks(reviewRepository, CLOCK, 100);
+  }
+
+  @Test
+  void shouldRankBooksByReviewsWithinWindow() {
+    when(reviewRepository.findActivityCreatedSince(NOW.minusDays(7)))
+        .thenReturn(
+            List.of(
+                new ReviewActivity("1", "Recent", NOW.minusMinutes(5)),
+                new ReviewActivity("1", "Recent", NOW.minusMinutes(10)),
+                new ReviewActivity("2", "Yesterday", NOW.minusHours(20)),
+                new ReviewActivity("2", "Yesterday", NOW.minusHours(21)),
+                new ReviewActivity("2", "Yesterday", NOW.minusHours(22)),
+                new ReviewActivity("3", "Last Week", NOW.minusDays(5)),
+                new ReviewActivity("3", "Last Week", NOW.minusDays(5)),
+                new ReviewActivity("3", "Last Week", NOW.minusDays(5)),
+                new ReviewActivity("3", "Last Week", NOW.minusDays(6))));
+
+    cut.rebuild();
+
+    assertEquals(
+        List.of(new TrendingBook("1", "Recent", 2)), cut.getTrending(TrendingWindow.ONE_HOUR, 10));
+    assertEquals(
+        List.of(new TrendingBook("2", "Yesterday", 3), new TrendingBook("1", "Recent", 2)),
+        cut.getTrending(TrendingWindow.ONE_DAY, 10));
+    assertEquals(
+        List.of(new TrendingBook("3", "Last Week", 4), new TrendingBook("2", "Yesterday", 3)),
+        cut.getTrending(TrendingWindow.ONE_WEEK, 2));
+  }
+
+  @Test
+  void shouldCountCreatedAndDeletedReviews() {
+    when(reviewRepository.findActivityCreatedSince(NOW.minusDays(7))).thenReturn(List.of());
+    cut.rebuild();
+
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview(NOW.minusMinutes(1))));
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview(NOW.minusMinutes(2))));
+    cut.onReviewDeleted(new ReviewDeletedEvent(createReview(NOW.minusMinutes(2))));
+
+    assertEquals(
+        List.of(new TrendingBook("42", "Book", 1)), cut.getTrending(TrendingWindow.ONE_HOUR, 10));
+  }
+
+  @Test
+  void shouldIgnoreDeletionOfReviewOutsideAllWindows() {
+    when(reviewRepository.findActivityCreatedSince(NOW.minusDays(7))).thenReturn(List.of());
+    cut.rebuild();
+
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview(NOW)));
+    cut.onReviewDeleted(new ReviewDeletedEvent(createReview(NOW.minusDays(30))));
+
+    assertEquals(
+        List.of(new TrendingBook("42", "Book", 1)), cut.getTrending(TrendingWindow.ONE_WEEK, 10));
+  }
+
+  @Test
+  void shouldEvictBooksWithoutReviewsInTheLastWeekWhenReviewsArrive() {
+    when(reviewRepository.findActivityCreatedSince(NOW.minusDays(7)))
+        .thenReturn(
+            List.of(
+                new ReviewActivity("1", "Recent", NOW.minusMinutes(5)),
+                new ReviewActivity("2", "Expired", NOW.minusDays(7))));
+    cut.rebuild();
+
+    assertEquals(
+        List.of(new TrendingBook("1", "Recent", 1)), cut.getTrending(TrendingWindow.ONE_HOUR, 10));
+    assertEquals(2, cut.trackedBooks());
+
+    cut.onReviewCreated(new ReviewCreatedEvent(createReview(NOW)));
+
+    assertEquals(2, cut.trackedBooks());
+    assertEquals(
+        List.of(new TrendingBook("1", "Recent", 1), new TrendingBook("42", "Book", 1)),
+        cut.getTrending(TrendingWindow.ONE_HOUR, 10));
+  }
+
+  @Test
+  void shouldKeepTheRankingOfAWindowUpToDateWithReviews() {
+    TrendingBooks topTwo = new TrendingBooks(reviewRepository, CLOCK, 2);
+
+    when(reviewRepository.findActivityCreatedSince(NOW.minusDays(7)))
+        .thenReturn(
+            List.of(
+                new ReviewActivity("1", "First", NOW.minusMinutes(1)),
+                new ReviewActivity("1", "First", NOW.minusMinutes(2)),
+                new ReviewActivity("1", "First", NOW.minusMinutes(3)),
+                new ReviewActivity("2", "Second", NOW.minusMinutes(1)),
+                new ReviewActivity("2", "Second", NOW.minusMinutes(2)),
+                new ReviewActivity("3", "Third", NOW.minusMinutes(1))));
+    topTwo.rebuild();
+
+    assertEquals(
+        List.of(new TrendingBook("1", "First", 3), new TrendingBook("2", "Second", 2)),
+        topTwo.getTrending(TrendingWindow.ONE_HOUR, 10));
+
+    topTwo.onReviewCreated(new ReviewCreatedEvent(createReview(NOW.minusMinutes(1))));
+    topTwo.onReviewCreated(new ReviewCreatedEvent(createReview(NOW.minusMinutes(2))));
+    topTwo.onReviewCreated(new ReviewCreatedEvent(createReview(NOW.minusMinutes(3))));
+
+    assertEquals(
+        List.of(new TrendingBook("1", "First", 3), new TrendingBook("42", "Book", 3)),
+        topTwo.getTrending(TrendingWindow.ONE_HOUR, 10));
+
+    // the second book left the ranking above and has to be found again
+    topTwo.onReviewDeleted(new ReviewDeletedEvent(createReview(NOW.minusMinutes(3))));
+
+    assertEquals(
+        List.of(new TrendingBook("1", "First", 3), new TrendingBook("2", "Second", 2)),
+        topTwo.getTrending(TrendingWindow.ONE_HOUR, 10));
+  }
+
+  @Test
+  void shouldRejectUnknownWindow() {
+    assertEquals(TrendingWindow.ONE_DAY, TrendingWindow.parse("24h"));
+    assertThrows(InvalidTrendingWindowException.class, () -> TrendingWindow.parse("2h"));
+  }
+
+  private Review createReview(LocalDateTime createdAt) {
+    Book book = new Book();
+    book.setIsbn("42");
+    book.setTitle("Book");
+
+    User user = new User();
+    user.setName("duke");
+
+    Review review = new Review();
+    review.setId(1L);
+    review.setRating(4);
+    review.setCreatedAt(createdAt);
+    review.setBook(book);
+    review.setUser(user);
+    return review;
+  }
+}
@@ -2,6 +2,8 @@ package de.rieckpil.courses.cache;
 
 import java.util.List;
 
+import de.rieckpil.courses.book.ContentVersions;
+import de.rieckpil.courses.book.RequestCoalescer;
 import de.rieckpil.courses.book.management.Book;
 import de.rieckpil.courses.book.management.BookController;
 import de.rieckpil.courses.book.management.BookManagementService;
@@ -27,7 +29,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 // @ActiveProfiles("foobar")
 // see
 // https://github.com/spring-projects/spring-boot/wiki/Spring-Boot-2.7-Release-Notes#migrating-from-websecurityconfigureradapter-to-securityfilterchain
-@Import(WebSecurityConfig.class)
+@Import({WebSecurityConfig.class, ContentVersions.class, RequestCoalescer.class})
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
 class BookControllerTwoTest {
 
@@ -6,3 +6,8 @@ INSERT INTO books (id, title, isbn, author, genre, thumbnail_url, description, p
 INSERT INTO reviews (title, content, rating, created_at, book_id, user_id) VALUES ('Nice book!', 'Can recommend reading it', 5, '2020-08-11T07:45:00.500+0200', 1, 1);
 INSERT INTO reviews (title, content, rating, created_at, book_id, user_id) VALUES ('Did not understand anything', 'To advanced for beginners', 1, '2020-08-11T07:45:00.500+0200', 2, 1);
 INSERT INTO reviews (title, content, rating, created_at, book_id, user_id) VALUES ('Too easy', 'Nice examples, but think this book is rather for beginners', 5, '2020-08-11T07:45:00.500+0200', 2, 1);
+
+INSERT INTO review_statistics (book_id, ratings, rating_sum, avg) VALUES (1, 1, 5, 5.00);
+INSERT INTO review_statistics (book_id, ratings, rating_sum, avg) VALUES (2, 2, 6, 3.00);
+
+INSERT INTO review_view (review_id, title, content, rating, created_at, book_id, book_isbn, book_title, book_thumbnail_url, submitted_by) SELECT r.id, r.title, r.content, r.rating, r.created_at, b.id, b.isbn, b.title, b.thumbnail_url, u.name FROM reviews r JOIN books b ON b.id = r.book_id JOIN users u ON u.id = r.user_id;